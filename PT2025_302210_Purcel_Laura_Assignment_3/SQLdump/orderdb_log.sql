@@ -29,7 +29,10 @@ CREATE TABLE `log` (
   `quantity` int DEFAULT NULL,
   `totalPrice` double DEFAULT NULL,
   `timestamp` timestamp NULL DEFAULT NULL,
-  PRIMARY KEY (`orderId`)
+  PRIMARY KEY (`orderId`),
+  KEY `idx_log_timestamp` (`timestamp`,`orderId`),
+  KEY `idx_log_client` (`clientId`,`orderId`),
+  KEY `idx_log_product` (`productId`,`orderId`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
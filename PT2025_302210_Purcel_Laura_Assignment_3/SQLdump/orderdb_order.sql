@@ -28,7 +28,8 @@ CREATE TABLE `order` (
   `productId` int DEFAULT NULL,
   `quantity` int DEFAULT NULL,
   `orderDate` datetime DEFAULT NULL,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_order_date` (`orderDate`,`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=10 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -27,7 +27,8 @@ CREATE TABLE `product` (
   `price` double DEFAULT NULL,
   `name` varchar(45) DEFAULT NULL,
   `quantity` int DEFAULT NULL,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_product_name` (`name`,`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=9 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -0,0 +1,146 @@
+package org.example.Business;
+
+import org.example.Connection.UnitOfWork;
+import org.example.Model.Bill;
+import org.example.Model.EntityChange;
+import org.example.Model.Log;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process publish/subscribe channel for changes made by the business layer, so that every open view can
+ * update the rows that changed instead of polling or reloading.
+ * Changes made inside a {@link UnitOfWork} are only published once it commits. Delivery is asynchronous:
+ * changes are collected for a short window, changes to the same row are coalesced into one, and each
+ * subscriber receives the changes of its entity type as one batch, on the executor it chose.
+ * Bills are published as inserts, keyed by order ID, once they are written to the log.
+ */
+public final class ChangeBus {
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeBus.class.getName());
+
+    private static final long BATCH_WINDOW_MS = 50;
+
+    private static final List<Subscriber<?>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+    private static final Object LOCK = new Object();
+    private static Map<Key, EntityChange<?>> pending = new LinkedHashMap<>();
+
+    private record Key(Class<?> type, int id) {
+    }
+
+    private record Subscriber<T>(Class<T> type, Executor executor, Consumer<List<EntityChange<T>>> consumer) {
+    }
+
+    static {
+        Thread dispatcher = new Thread(ChangeBus::dispatchLoop, "change-bus");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        Log.addWriteListener(bills -> bills.forEach(bill ->
+                publish(Bill.class, EntityChange.inserted(bill.orderId(), bill))));
+    }
+
+    private ChangeBus() {
+    }
+
+    /**
+     * Registers a subscriber for the changes of one entity type.
+     *
+     * @param type     the entity class whose changes are delivered
+     * @param executor runs the subscriber, for example {@code SwingUtilities::invokeLater} for a view
+     * @param consumer receives each batch of changes, in the order the rows first changed
+     * @param <T>      the entity type
+     */
+    public static <T> void subscribe(Class<T> type, Executor executor, Consumer<List<EntityChange<T>>> consumer) {
+        SUBSCRIBERS.add(new Subscriber<>(type, executor, consumer));
+    }
+
+    /**
+     * Removes a subscriber registered with {@link #subscribe(Class, Executor, Consumer)}.
+     *
+     * @param consumer the consumer that was registered
+     */
+    public static void unsubscribe(Consumer<?> consumer) {
+        SUBSCRIBERS.removeIf(subscriber -> subscriber.consumer() == consumer);
+    }
+
+    /**
+     * Publishes a change, after the commit of the active unit of work if there is one.
+     *
+     * @param type   the entity class of the changed row
+     * @param change the change
+     * @param <T>    the entity type
+     * @return the published change
+     */
+    public static <T> EntityChange<T> publish(Class<T> type, EntityChange<T> change) {
+        UnitOfWork.afterCommit(() -> {
+            synchronized (LOCK) {
+                pending.merge(new Key(type, change.id()), change, ChangeBus::coalesce);
+                LOCK.notifyAll();
+            }
+        });
+        return change;
+    }
+
+    /**
+     * Combines two changes of the same row into the one a subscriber would have ended up applying.
+     * A row inserted and then deleted within one batch is left out.
+     */
+    private static EntityChange<?> coalesce(EntityChange<?> earlier, EntityChange<?> later) {
+        if (earlier.kind() == EntityChange.Kind.INSERTED) {
+            if (later.kind() == EntityChange.Kind.DELETED) {
+                return null;
+            }
+            return new EntityChange<>(EntityChange.Kind.INSERTED, later.id(), later.entity());
+        }
+        return later;
+    }
+
+    private static void dispatchLoop() {
+        while (true) {
+            Map<Key, EntityChange<?>> batch;
+            try {
+                synchronized (LOCK) {
+                    while (pending.isEmpty()) {
+                        LOCK.wait();
+                    }
+                }
+                Thread.sleep(BATCH_WINDOW_MS);
+                synchronized (LOCK) {
+                    batch = pending;
+                    pending = new LinkedHashMap<>();
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            Map<Class<?>, List<EntityChange<?>>> byType = new LinkedHashMap<>();
+            batch.forEach((key, change) -> byType.computeIfAbsent(key.type(), k -> new ArrayList<>()).add(change));
+            for (Subscriber<?> subscriber : SUBSCRIBERS) {
+                List<EntityChange<?>> changes = byType.get(subscriber.type());
+                if (changes != null) {
+                    deliver(subscriber, List.copyOf(changes));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void deliver(Subscriber<?> subscriber, List<EntityChange<?>> changes) {
+        Consumer consumer = subscriber.consumer();
+        subscriber.executor().execute(() -> {
+            try {
+                consumer.accept(changes);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "A subscriber failed to handle " + changes.size() + " "
+                        + subscriber.type().getSimpleName() + " changes", e);
+            }
+        });
+    }
+}
@@ -1,20 +1,30 @@
 package org.example.Business;
 
+import org.example.Connection.UnitOfWork;
 import org.example.DataAccess.ClientDAO;
+import org.example.DataAccess.EntityTableModel;
 import org.example.Model.Client;
+import org.example.Model.EntityChange;
 import org.example.Business.Validators.EmailValidator;
 import org.example.Business.Validators.ClientAgeValidator;
+import org.example.Business.Validators.ValidationEngine;
 import org.example.Business.Validators.Validator;
+import org.example.Business.Import.CsvImporter;
+import org.example.Business.Import.ImportReport;
 
-import javax.swing.table.DefaultTableModel;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 /**
  * The ClientBLL (Business Logic Layer) class handles the core logic for managing clients.
  * It validates client data before performing operations through the ClientDAO.
+ * Every change runs in its own {@link UnitOfWork} and is published on the {@link ChangeBus} once it commits.
  */
 public class ClientBLL {
     private final List<Validator<Client>> validators;
+    private final ValidationEngine<Client> validation;
     private final ClientDAO clientDAO;
 
     /**
@@ -25,6 +35,7 @@ public class ClientBLL {
         validators = new ArrayList<>();
         validators.add(new EmailValidator());
         validators.add(new ClientAgeValidator());
+        validation = new ValidationEngine<>(validators);
         clientDAO = new ClientDAO();
     }
 
@@ -32,39 +43,85 @@ public class ClientBLL {
      * Inserts a new client into the database after validation.
      *
      * @param client The Client object to be inserted.
-     * @return The inserted Client object.
+     * @return The insert, carrying the inserted Client object and its generated ID.
      * @throws IllegalArgumentException if validation fails.
+     * @throws IllegalStateException if the database rejected the change, which is then not published.
      */
-    public Client insertClient(Client client) {
+    public EntityChange<Client> insertClient(Client client) {
 //        for (Validator<Client> v : validators) {
 //            v.validate(client);
 //        }
-        validators.forEach(v -> v.validate(client));
-        return clientDAO.insert(client);
+        validation.validate(client);
+        return UnitOfWork.execute(() -> {
+            Client inserted = clientDAO.insert(client);
+            return ChangeBus.publish(Client.class, EntityChange.inserted(inserted.getId(), inserted));
+        });
+    }
+
+    /**
+     * Inserts many clients in batches after validating every one of them.
+     *
+     * @param clients The Client objects to be inserted.
+     * @return The generated IDs, in the iteration order of {@code clients}.
+     * @throws IllegalArgumentException if validation fails for any client, listing every violation.
+     */
+    public int[] insertClients(Collection<Client> clients) {
+        validation.validateAll(clients);
+        return clientDAO.insertAll(clients);
+    }
+
+    /**
+     * Imports clients from a CSV file with the columns name, address, email and age.
+     * The file is streamed, validated on worker threads and inserted in batches;
+     * invalid records are written to the rejected file instead.
+     *
+     * @param csv      The CSV file to import.
+     * @param rejected The file receiving the rejected records.
+     * @return The counts and throughput of the import.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public ImportReport importFromCsv(Path csv, Path rejected) throws IOException {
+        return new CsvImporter<Client>(
+                row -> new Client(0, row.get("name"), row.get("address"), row.get("email"), row.getInt("age")),
+                validation, clientDAO::insertAll)
+                .importFile(csv, rejected);
     }
 
     /**
      * Updates an existing client in the database after validation.
+     * Only the columns that differ from the stored row are written.
      *
      * @param client The Client object with updated data.
-     * @return The updated Client object.
-     * @throws IllegalArgumentException if validation fails.
+     * @return The update, carrying the updated Client object.
+     * @throws IllegalArgumentException if validation fails or no client has its ID.
+     * @throws IllegalStateException if the database rejected the change, which is then not published.
      */
-    public Client updateClient(Client client) {
+    public EntityChange<Client> updateClient(Client client) {
 //        for (Validator<Client> v : validators) {
 //            v.validate(client);
 //        }
-        validators.forEach(v -> v.validate(client));
-        return clientDAO.update(client);
+        validation.validate(client);
+        return UnitOfWork.execute(() -> {
+            Client updated = clientDAO.merge(client);
+            if (updated == null) {
+                throw new IllegalArgumentException("Client with ID " + client.getId() + " not found.");
+            }
+            return ChangeBus.publish(Client.class, EntityChange.updated(updated.getId(), updated));
+        });
     }
 
     /**
      * Deletes a client from the database by ID.
      *
      * @param id The ID of the client to be deleted.
+     * @return The deletion of the client.
+     * @throws IllegalStateException if the database rejected the deletion, which is then not published.
      */
-    public void deleteClient(int id) {
-        clientDAO.delete(id);
+    public EntityChange<Client> deleteClient(int id) {
+        return UnitOfWork.execute(() -> {
+            clientDAO.delete(id);
+            return ChangeBus.publish(Client.class, EntityChange.deleted(id));
+        });
     }
 
     /**
@@ -77,13 +134,24 @@ public class ClientBLL {
     }
 
     /**
-     * Creates a DefaultTableModel representation for a list of clients.
-     * This model is used for displaying clients in a JTable.
+     * Retrieves one page of clients ordered by email, sorted and limited by the database.
+     *
+     * @param after The last client of the previous page, or null for the first page.
+     * @param limit The maximum number of clients to return.
+     * @return The clients of the page.
+     */
+    public List<Client> findClientPage(Client after, int limit) {
+        return clientDAO.findPage("email", false, after, limit);
+    }
+
+    /**
+     * Creates a table model for a list of clients, sorted by email like {@link #findClientPage(Client, int)}.
+     * Further pages and the changes returned by the write methods can be applied to it row by row.
      *
      * @param clients The list of Client objects.
-     * @return A DefaultTableModel for the given clients.
+     * @return An EntityTableModel for the given clients.
      */
-    public DefaultTableModel getTableModel(List<Client> clients) {
-        return clientDAO.createTable(clients);
+    public EntityTableModel<Client> getTableModel(List<Client> clients) {
+        return clientDAO.createTableModel(clients, "email", false);
     }
 }
@@ -0,0 +1,281 @@
+package org.example.Business.Import;
+
+import org.example.Business.Validators.ValidationEngine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Imports a CSV file through a pipeline of bounded memory.
+ * The calling thread parses the file and hands chunks of records to a bounded queue; worker threads map
+ * and validate the records and write the valid ones in batches. When the workers fall behind, the parser
+ * waits, so only a few chunks and one batch per worker are held in memory whatever the size of the file.
+ * Records that fail mapping, validation or their batch insert are written to a rejected-rows file,
+ * together with their line number and the reason they were rejected.
+ * <p>
+ * The first line of the file is the header; records are read by column name, so columns may come in any order.
+ *
+ * @param <T> the type of the imported objects
+ */
+public class CsvImporter<T> {
+
+    private static final Logger LOGGER = Logger.getLogger(CsvImporter.class.getName());
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+    private static final List<CsvRow> END = Collections.emptyList();
+
+    private final RowMapper<T> mapper;
+    private final ValidationEngine<T> validation;
+    private final Consumer<List<T>> writer;
+    private int workers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Creates an importer.
+     *
+     * @param mapper     turns a record into an object
+     * @param validation the checks every object must pass
+     * @param writer     writes one batch of valid objects, throwing a runtime exception if the batch failed
+     */
+    public CsvImporter(RowMapper<T> mapper, ValidationEngine<T> validation, Consumer<List<T>> writer) {
+        this.mapper = mapper;
+        this.validation = validation;
+        this.writer = writer;
+    }
+
+    /**
+     * Sets the number of worker threads validating and writing records.
+     *
+     * @param workers the number of workers, at least 1
+     * @return this importer
+     */
+    public CsvImporter<T> setWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Sets the number of objects each worker writes per batch.
+     *
+     * @param batchSize the batch size, at least 1
+     * @return this importer
+     */
+    public CsvImporter<T> setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Imports every record of a CSV file.
+     *
+     * @param csv      the file to import
+     * @param rejected the file receiving the rejected records; it is overwritten
+     * @return the counts and throughput of the import
+     * @throws IOException if a file cannot be read or written
+     */
+    public ImportReport importFile(Path csv, Path rejected) throws IOException {
+        long start = System.nanoTime();
+        long read = 0;
+        LongAdder imported = new LongAdder();
+        LongAdder rejectedRows = new LongAdder();
+        BlockingQueue<List<CsvRow>> queue = new ArrayBlockingQueue<>(workers * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "csv-import-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8));
+             BufferedWriter rejects = Files.newBufferedWriter(rejected, StandardCharsets.UTF_8)) {
+
+            String[] columns = reader.next();
+            if (columns == null) {
+                throw new IOException("The file " + csv + " is empty");
+            }
+            if (columns.length > 0 && columns[0].startsWith("\uFEFF")) {
+                columns[0] = columns[0].substring(1);
+            }
+            Map<String, Integer> header = new HashMap<>();
+            for (int i = 0; i < columns.length; i++) {
+                header.put(columns[i].trim(), i);
+            }
+            String[] rejectHeader = new String[columns.length + 2];
+            rejectHeader[0] = "line";
+            rejectHeader[1] = "error";
+            System.arraycopy(columns, 0, rejectHeader, 2, columns.length);
+            rejects.write(CsvReader.format(rejectHeader));
+            rejects.newLine();
+
+            RejectSink sink = new RejectSink(rejects, rejectedRows);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> work(queue, sink, imported)));
+            }
+
+            try {
+                List<CsvRow> chunk = new ArrayList<>(CHUNK_SIZE);
+                String[] fields;
+                while ((fields = reader.next()) != null) {
+                    chunk.add(new CsvRow(header, fields, reader.getRecordLine()));
+                    read++;
+                    if (chunk.size() == CHUNK_SIZE) {
+                        queue.put(chunk);
+                        chunk = new ArrayList<>(CHUNK_SIZE);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    queue.put(chunk);
+                }
+            } finally {
+                for (int i = 0; i < workers; i++) {
+                    putQuietly(queue, END);
+                }
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The import of " + csv + " was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("The import of " + csv + " failed: " + e.getCause().getMessage(),
+                    e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ImportReport report = new ImportReport(read, imported.sum(), rejectedRows.sum(),
+                (System.nanoTime() - start) / 1_000_000, rejected);
+        LOGGER.log(Level.INFO, "Imported " + csv + ": " + report);
+        return report;
+    }
+
+    /**
+     * Worker loop: maps and validates records, and writes the valid objects in batches.
+     */
+    private void work(BlockingQueue<List<CsvRow>> queue, RejectSink sink, LongAdder imported) {
+        List<T> batch = new ArrayList<>(batchSize);
+        List<CsvRow> batchRows = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                List<CsvRow> chunk = queue.take();
+                if (chunk == END) {
+                    break;
+                }
+                for (CsvRow row : chunk) {
+                    T t;
+                    try {
+                        t = mapper.map(row);
+                    } catch (IllegalArgumentException e) {
+                        sink.reject(row, e.getMessage());
+                        continue;
+                    }
+                    List<String> violations = validation.check(t);
+                    if (!violations.isEmpty()) {
+                        sink.reject(row, String.join(" ", violations));
+                        continue;
+                    }
+                    batch.add(t);
+                    batchRows.add(row);
+                    if (batch.size() == batchSize) {
+                        write(batch, batchRows, sink, imported);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch, batchRows, sink, imported);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // keep taking chunks so that the parser is never left blocked on a full queue
+            try {
+                while (queue.take() != END) {
+                    continue;
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            throw e;
+        }
+    }
+
+    private void write(List<T> batch, List<CsvRow> batchRows, RejectSink sink, LongAdder imported) {
+        try {
+            writer.accept(batch);
+            imported.add(batch.size());
+        } catch (RuntimeException e) {
+            for (CsvRow row : batchRows) {
+                sink.reject(row, "Insert failed: " + e.getMessage());
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    private static void putQuietly(BlockingQueue<List<CsvRow>> queue, List<CsvRow> chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes rejected records, shared by every worker.
+     */
+    private static final class RejectSink {
+        private final BufferedWriter out;
+        private final LongAdder count;
+
+        private RejectSink(BufferedWriter out, LongAdder count) {
+            this.out = out;
+            this.count = count;
+        }
+
+        synchronized void reject(CsvRow row, String reason) {
+            String[] fields = row.getFields();
+            String[] line = new String[fields.length + 2];
+            line[0] = Long.toString(row.getLine());
+            line[1] = reason;
+            System.arraycopy(fields, 0, line, 2, fields.length);
+            try {
+                out.write(CsvReader.format(line));
+                out.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count.increment();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.Business.Import;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * One parsed CSV record, whose fields are looked up by the column names of the header line.
+ */
+public final class CsvRow {
+
+    private final Map<String, Integer> header;
+    private final String[] fields;
+    private final long line;
+
+    CsvRow(Map<String, Integer> header, String[] fields, long line) {
+        this.header = header;
+        this.fields = fields;
+        this.line = line;
+    }
+
+    /**
+     * Returns the value of a column.
+     *
+     * @param column the column name, as written in the header
+     * @return the field value
+     * @throws IllegalArgumentException if the file has no such column or the record is too short
+     */
+    public String get(String column) {
+        Integer index = header.get(column);
+        if (index == null) {
+            throw new IllegalArgumentException("Missing column " + column);
+        }
+        if (index >= fields.length) {
+            throw new IllegalArgumentException("Missing value for " + column);
+        }
+        return fields[index];
+    }
+
+    public int getInt(String column) {
+        String value = get(column);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a whole number: " + value);
+        }
+    }
+
+    public double getDouble(String column) {
+        String value = get(column);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    /**
+     * Returns the value of a column holding an ISO-8601 local date and time, such as 2025-05-18T15:26:18.
+     * A space is accepted instead of the T separator.
+     *
+     * @param column the column name
+     * @return the parsed date and time
+     */
+    public LocalDateTime getDateTime(String column) {
+        String value = get(column);
+        try {
+            return LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(column + " is not a date and time: " + value);
+        }
+    }
+
+    public String[] getFields() {
+        return fields;
+    }
+
+    public long getLine() {
+        return line;
+    }
+}
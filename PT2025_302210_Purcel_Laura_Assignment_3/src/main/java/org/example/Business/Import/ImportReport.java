@@ -0,0 +1,69 @@
+package org.example.Business.Import;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of one CSV import: how many records were read, imported and rejected, and how fast.
+ */
+public final class ImportReport {
+
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long elapsedMillis;
+    private final Path rejectedFile;
+
+    ImportReport(long rowsRead, long rowsImported, long rowsRejected, long elapsedMillis, Path rejectedFile) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsedMillis = elapsedMillis;
+        this.rejectedFile = rejectedFile;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns the file listing every rejected record with its line number and the reason it was rejected.
+     *
+     * @return the rejected-rows file
+     */
+    public Path getRejectedFile() {
+        return rejectedFile;
+    }
+
+    /**
+     * Returns the import throughput.
+     *
+     * @return the number of records read per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "rowsRead=" + rowsRead +
+                ", rowsImported=" + rowsImported +
+                ", rowsRejected=" + rowsRejected +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                ", rejectedFile=" + rejectedFile +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.Business.Import;
+
+/**
+ * Turns a parsed CSV record into an object to import.
+ *
+ * @param <T> the type of the imported objects
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps one record.
+     *
+     * @param row the record to map
+     * @return the mapped object
+     * @throws IllegalArgumentException if a field is missing or malformed
+     */
+    T map(CsvRow row);
+}
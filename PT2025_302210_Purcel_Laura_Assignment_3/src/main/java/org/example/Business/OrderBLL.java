@@ -1,13 +1,24 @@
 package org.example.Business;
 
+import org.example.Connection.UnitOfWork;
 import org.example.DataAccess.OrderDAO;
+import org.example.DataAccess.PagedTableModel;
 import org.example.DataAccess.ProductDAO;
+import org.example.Model.Bill;
+import org.example.Model.EntityChange;
+import org.example.Model.Log;
 import org.example.Model.Order;
 import org.example.Model.Product;
 import org.example.Business.Validators.QuantityValidator;
+import org.example.Business.Validators.StockValidator;
+import org.example.Business.Validators.ValidationEngine;
 import org.example.Business.Validators.Validator;
+import org.example.Business.Import.CsvImporter;
+import org.example.Business.Import.ImportReport;
 
 import javax.swing.table.DefaultTableModel;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 /**
@@ -17,22 +28,50 @@ import java.util.List;
 public class OrderBLL {
     private final OrderDAO orderDAO;
     private final ProductDAO productDAO;
+    private final Log log;
     private final List<Validator<Order>> validators;
+    private final ValidationEngine<Order> validation;
+    private final ValidationEngine<Order> placeValidation;
+    private final StockLedger stockLedger;
 
     /**
      * Constructs a new OrderBLL instance.
-     * Initializes DAOs for orders and products and sets up order validators.
+     * Stock is checked and taken out in the database, unless the system property
+     * {@code orderdb.stock.ledger} is true, in which case the shared {@link StockLedger} is used.
      */
     public OrderBLL() {
+        this(Boolean.getBoolean("orderdb.stock.ledger") ? StockLedger.shared() : null);
+    }
+
+    /**
+     * Constructs a new OrderBLL instance.
+     * Initializes DAOs for orders and products and sets up order validators.
+     * Orders placed now are also checked against the product stock; imported orders are history
+     * and only go through the order's own validators.
+     *
+     * @param stockLedger the in-memory stock to reserve from, or null to work on the stored stock only
+     */
+    public OrderBLL(StockLedger stockLedger) {
+        this.stockLedger = stockLedger;
         this.orderDAO = new OrderDAO();
         this.productDAO = new ProductDAO();
+        this.log = new Log();
         this.validators = new ArrayList<>();
         validators.add(new QuantityValidator());
+        this.validation = new ValidationEngine<>(validators);
+        List<Validator<Order>> placeValidators = new ArrayList<>(validators);
+        placeValidators.add(new StockValidator(productDAO));
+        this.placeValidation = new ValidationEngine<>(placeValidators);
     }
 
     /**
      * Inserts a new order into the database after validation.
-     * Also updates the product's available quantity.
+     * Also takes the ordered quantity out of the product's stock with a single guarded decrement.
+     * The stock update and the insert run in a single transaction, whose identity map gives the
+     * validators the product already read by the caller. The new order is published on the
+     * {@link ChangeBus} once the transaction commits.
+     * With a stock ledger, the stock is reserved in memory instead; the reservation is committed
+     * with the transaction, and given back if the transaction rolls back.
      *
      * @param order The Order object to insert.
      * @return The inserted Order object.
@@ -42,11 +81,81 @@ public class OrderBLL {
 //        for (Validator<Order> validator : validators) {
 //            validator.validate(order);
 //        }
-        validators.forEach(v -> v.validate(order));
-        Product product = productDAO.findById(order.getProductId());
-        product.setQuantity(product.getQuantity() - order.getQuantity());
-        productDAO.update(product);
-        return orderDAO.insert(order);
+        if (stockLedger != null) {
+            return insertReserved(order);
+        }
+        return UnitOfWork.execute(() -> {
+            placeValidation.validate(order);
+            if (!productDAO.reserveStock(order.getProductId(), order.getQuantity())) {
+                throw new IllegalArgumentException("Product with ID " + order.getProductId()
+                        + " not found or ordered quantity exceeds available stock.");
+            }
+            return published(orderDAO.insert(order));
+        });
+    }
+
+    private static Order published(Order inserted) {
+        ChangeBus.publish(Order.class, EntityChange.inserted(inserted.getId(), inserted));
+        return inserted;
+    }
+
+    private Order insertReserved(Order order) {
+        validation.validate(order);
+        int productId = order.getProductId();
+        int quantity = order.getQuantity();
+        return UnitOfWork.execute(() -> {
+            if (!stockLedger.reserve(productId, quantity)) {
+                throw new IllegalArgumentException("Product with ID " + productId
+                        + " not found or ordered quantity exceeds available stock.");
+            }
+            UnitOfWork.afterCommit(() -> stockLedger.commit(productId, quantity));
+            UnitOfWork.afterRollback(() -> stockLedger.release(productId, quantity));
+            return published(orderDAO.insert(order));
+        });
+    }
+
+    /**
+     * Places an order: validates it, decrements the product stock and inserts the order
+     * on one connection and in one commit.
+     * The product is read once, for its price, and the stock check reuses it from the identity map
+     * of the transaction.
+     * The bill, which refers to the ID generated for the order, is then handed to the
+     * background log writer, so placing the order does not wait for the audit log.
+     *
+     * @param order The Order object to place; its ID is set once inserted.
+     * @return The Bill logged for the order.
+     * @throws IllegalArgumentException if the order fails validation.
+     * @throws IllegalStateException if the transaction could not be committed.
+     */
+    public Bill placeOrder(Order order) {
+        return UnitOfWork.execute(() -> {
+            Product product = productDAO.findById(order.getProductId());
+            double unitPrice = product == null ? 0 : product.getPrice();
+            Order inserted = insert(order);
+            Bill bill = new Bill(inserted.getId(), inserted.getClientId(), inserted.getProductId(),
+                    inserted.getQuantity(), inserted.getQuantity() * unitPrice, inserted.getOrderDate());
+            log.submitBill(bill);
+            return bill;
+        });
+    }
+
+    /**
+     * Imports past orders from a CSV file with the columns clientId, productId, orderDate and quantity.
+     * The orders are recorded as history: product stock is not changed and no bills are logged.
+     * The file is streamed, validated on worker threads and inserted in batches;
+     * invalid records are written to the rejected file instead.
+     *
+     * @param csv      The CSV file to import.
+     * @param rejected The file receiving the rejected records.
+     * @return The counts and throughput of the import.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public ImportReport importFromCsv(Path csv, Path rejected) throws IOException {
+        return new CsvImporter<Order>(
+                row -> new Order(0, row.getInt("clientId"), row.getInt("productId"),
+                        row.getDateTime("orderDate"), row.getInt("quantity")),
+                validation, orderDAO::insertAll)
+                .importFile(csv, rejected);
     }
 
     /**
@@ -67,5 +176,15 @@ public class OrderBLL {
     public DefaultTableModel getOrderTable(List<Order> orders) {
         return orderDAO.createTable(orders);
     }
+
+    /**
+     * Creates a table model over every order, newest first, that reads the orders page by page
+     * as the table is scrolled and only keeps the pages being shown.
+     *
+     * @return A lazily loaded table model of all orders.
+     */
+    public PagedTableModel<Order> getPagedOrderTable() {
+        return new PagedTableModel<>(orderDAO, "orderDate", true);
+    }
 }
 
@@ -2,21 +2,32 @@ package org.example.Business;
 
 import org.example.Business.Validators.ProductPriceValidator;
 import org.example.Business.Validators.ProductQuantityValidator;
+import org.example.Business.Validators.ValidationEngine;
 import org.example.Business.Validators.Validator;
+import org.example.Business.Import.CsvImporter;
+import org.example.Business.Import.ImportReport;
+import org.example.Connection.UnitOfWork;
+import org.example.DataAccess.Criteria;
+import org.example.DataAccess.EntityTableModel;
 import org.example.DataAccess.ProductDAO;
+import org.example.Model.EntityChange;
 import org.example.Model.Product;
 
-import javax.swing.table.DefaultTableModel;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * The ProductBLL (Business Logic Layer) class handles operations related to product management.
  * It includes validation logic and delegates database operations to the ProductDAO.
+ * Every change runs in its own {@link UnitOfWork} and is published on the {@link ChangeBus} once it commits.
  */
 public class ProductBLL {
     private final List<Validator<Product>> validators = new ArrayList<>();
     private final ProductDAO productDAO = new ProductDAO();
+    private final ValidationEngine<Product> validation;
 
     /**
      * Constructs a new ProductBLL instance.
@@ -25,45 +36,103 @@ public class ProductBLL {
     public ProductBLL() {
         validators.add(new ProductPriceValidator(10000.0));
         validators.add(new ProductQuantityValidator(1000));
+        validation = new ValidationEngine<>(validators);
     }
 
     /**
      * Inserts a new product into the database after validation.
      *
      * @param product The Product object to be inserted.
-     * @return The inserted Product object.
+     * @return The insert, carrying the inserted Product object and its generated ID.
      * @throws IllegalArgumentException if validation fails.
+     * @throws IllegalStateException if the database rejected the change, which is then not published.
      */
-    public Product insertProduct(Product product) {
+    public EntityChange<Product> insertProduct(Product product) {
 //        for (Validator<Product> v : validators) {
 //            v.validate(product);
 //        }
-        validators.forEach(v -> v.validate(product));
-        return productDAO.insert(product);
+        validation.validate(product);
+        return UnitOfWork.execute(() -> {
+            Product inserted = productDAO.insert(product);
+            return ChangeBus.publish(Product.class, EntityChange.inserted(inserted.getId(), inserted));
+        });
+    }
+
+    /**
+     * Inserts many products in batches after validating every one of them.
+     *
+     * @param products The Product objects to be inserted.
+     * @return The generated IDs, in the iteration order of {@code products}.
+     * @throws IllegalArgumentException if validation fails for any product.
+     */
+    public int[] insertProducts(Collection<Product> products) {
+        validation.validateAll(products);
+        return productDAO.insertAll(products);
+    }
+
+    /**
+     * Imports products from a CSV file with the columns name, price and quantity.
+     * The file is streamed, validated on worker threads and inserted in batches;
+     * invalid records are written to the rejected file instead.
+     *
+     * @param csv      The CSV file to import.
+     * @param rejected The file receiving the rejected records.
+     * @return The counts and throughput of the import.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public ImportReport importFromCsv(Path csv, Path rejected) throws IOException {
+        return new CsvImporter<Product>(
+                row -> new Product(0, row.get("name"), row.getDouble("price"), row.getInt("quantity")),
+                validation, productDAO::insertAll)
+                .importFile(csv, rejected);
     }
 
     /**
      * Updates an existing product in the database after validation.
+     * Only the columns that differ from the stored row are written.
      *
      * @param product The Product object with updated fields.
-     * @return The updated Product object.
-     * @throws IllegalArgumentException if validation fails.
+     * @return The update, carrying the updated Product object.
+     * @throws IllegalArgumentException if validation fails or no product has its ID.
+     * @throws IllegalStateException if the database rejected the change, which is then not published.
      */
-    public Product updateProduct(Product product) {
+    public EntityChange<Product> updateProduct(Product product) {
 //        for (Validator<Product> v : validators) {
 //            v.validate(product);
 //        }
-        validators.forEach(v -> v.validate(product));
-        return productDAO.update(product);
+        validation.validate(product);
+        return UnitOfWork.execute(() -> {
+            Product updated = productDAO.merge(product);
+            if (updated == null) {
+                throw new IllegalArgumentException("Product with ID " + product.getId() + " not found.");
+            }
+            return ChangeBus.publish(Product.class, EntityChange.updated(updated.getId(), updated));
+        });
+    }
+
+    /**
+     * Takes the given quantity out of a product's stock if enough is available.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The quantity to reserve.
+     * @return true if the stock was decremented, false if the product is missing or has too little stock.
+     */
+    public boolean reserveStock(int productId, int quantity) {
+        return productDAO.reserveStock(productId, quantity);
     }
 
     /**
      * Deletes a product from the database by ID.
      *
      * @param id The ID of the product to delete.
+     * @return The deletion of the product.
+     * @throws IllegalStateException if the database rejected the deletion, which is then not published.
      */
-    public void deleteProduct(int id) {
-        productDAO.delete(id);
+    public EntityChange<Product> deleteProduct(int id) {
+        return UnitOfWork.execute(() -> {
+            productDAO.delete(id);
+            return ChangeBus.publish(Product.class, EntityChange.deleted(id));
+        });
     }
 
     /**
@@ -76,13 +145,51 @@ public class ProductBLL {
     }
 
     /**
-     * Creates a DefaultTableModel representation for a list of products.
-     * Used for displaying product data in a JTable.
+     * Retrieves one page of products ordered by name, sorted and limited by the database.
+     *
+     * @param after The last product of the previous page, or null for the first page.
+     * @param limit The maximum number of products to return.
+     * @return The products of the page.
+     */
+    public List<Product> findProductPage(Product after, int limit) {
+        return productDAO.findPage("name", false, after, limit);
+    }
+
+    /**
+     * Retrieves one page of products that are in stock, ordered by ID.
+     * The stock filter, ordering and limit are applied by the database.
+     *
+     * @param after The last product of the previous page, or null for the first page.
+     * @param limit The maximum number of products to return.
+     * @return The in-stock products of the page.
+     */
+    public List<Product> findAvailableProducts(Product after, int limit) {
+        Criteria criteria = Criteria.where().gt("quantity", 0);
+        if (after != null) {
+            criteria.gt("id", after.getId());
+        }
+        return productDAO.find(criteria.orderBy("id", false).limit(limit));
+    }
+
+    /**
+     * Creates a table model for a list of products, sorted by name like {@link #findProductPage(Product, int)}.
+     * Further pages and the changes returned by the write methods can be applied to it row by row.
+     *
+     * @param products The list of Product objects.
+     * @return An EntityTableModel based on the given products.
+     */
+    public EntityTableModel<Product> getTableModel(List<Product> products) {
+        return productDAO.createTableModel(products, "name", false);
+    }
+
+    /**
+     * Creates a table model for a list of products in stock, sorted by ID
+     * like {@link #findAvailableProducts(Product, int)}.
      *
      * @param products The list of Product objects.
-     * @return A DefaultTableModel based on the given products.
+     * @return An EntityTableModel based on the given products.
      */
-    public DefaultTableModel getTableModel(List<Product> products) {
-        return productDAO.createTable(products);
+    public EntityTableModel<Product> getAvailableTableModel(List<Product> products) {
+        return productDAO.createTableModel(products, "id", false);
     }
 }
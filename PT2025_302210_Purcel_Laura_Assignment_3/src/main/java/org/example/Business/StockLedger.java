@@ -0,0 +1,369 @@
+package org.example.Business;
+
+import org.example.Connection.ConnectionFactory;
+import org.example.DataAccess.InsufficientStockException;
+import org.example.DataAccess.ProductDAO;
+import org.example.Model.Product;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory stock of every product, used to take orders without a database round trip per stock check.
+ * The ledger is loaded from {@code Product.quantity}; a reservation takes stock out in memory, and is then
+ * either committed, once the order is stored, or released. Committed quantities are written back to the
+ * database in the background, batched per product, so a burst of orders on one product costs one UPDATE.
+ * <p>
+ * Every product has its own lock, so orders for different products never wait on each other and the
+ * lock of a hot product is only held for a few field updates. While the ledger is in use it is the
+ * authority on available stock; {@link #reconcile()}, run by the background writer every minute,
+ * brings it back in line with changes made to the database directly, such as a product edited in the UI.
+ * <p>
+ * The writes are guarded like any other stock change, so the stored stock never drops below zero.
+ * If the stock of a product was lowered in the database below what the ledger has committed, that product
+ * is held back and retried until it is restocked, while the other products keep being written.
+ */
+public final class StockLedger {
+
+    private static final Logger LOGGER = Logger.getLogger(StockLedger.class.getName());
+
+    private static final long FLUSH_INTERVAL_MS = 100;
+    private static final long RETRY_BACKOFF_MS = 2_000;
+    private static final long RECONCILE_INTERVAL_MS = 60_000;
+
+    private final ProductDAO productDAO;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final Object persistLock = new Object();
+    private final Thread flusher;
+    private volatile boolean stopped;
+
+    private final LongAdder persistedUnits = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+
+    /**
+     * Stock of one product. Guarded by the entry itself.
+     */
+    private static final class Entry {
+        private int available;
+        private int held;
+        private int unpersisted;
+
+        private Entry(int available) {
+            this.available = available;
+        }
+    }
+
+    /**
+     * Loads the stock of every product and starts the background writer.
+     *
+     * @param productDAO the DAO used to read products and write stock changes back
+     */
+    public StockLedger(ProductDAO productDAO) {
+        this(productDAO, true);
+    }
+
+    /**
+     * Loads the stock of every product. Without the background writer, committed quantities are only
+     * written by {@link #flush()} and {@link #reconcile()}, which lets tests drive every write themselves.
+     *
+     * @param productDAO the DAO used to read products and write stock changes back
+     * @param background whether to start the background writer and stop it on shutdown
+     */
+    StockLedger(ProductDAO productDAO, boolean background) {
+        this.productDAO = productDAO;
+        productDAO.forEach(product -> entries.put(product.getId(), new Entry(product.getQuantity())));
+        if (background) {
+            this.flusher = new Thread(this::flushLoop, "stock-ledger-writer");
+            flusher.setDaemon(true);
+            flusher.start();
+            ConnectionFactory.beforeShutdown(this::stop);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Returns the ledger shared by the application, loading it on first use.
+     *
+     * @return the shared stock ledger
+     */
+    public static StockLedger shared() {
+        return Holder.LEDGER;
+    }
+
+    /**
+     * Takes the given quantity out of the available stock of a product, if there is enough of it.
+     * The reservation must later be committed or released.
+     *
+     * @param productId the ID of the product
+     * @param quantity  the quantity to reserve
+     * @return true if the product exists and had enough stock, false otherwise
+     */
+    public boolean reserve(int productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reserved quantity must be positive.");
+        }
+        Entry entry = entry(productId);
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            if (entry.available < quantity) {
+                return false;
+            }
+            entry.available -= quantity;
+            entry.held += quantity;
+        }
+        return true;
+    }
+
+    /**
+     * Makes a reservation final. The quantity is written to the database by the background writer.
+     *
+     * @param productId the ID of the product
+     * @param quantity  the reserved quantity
+     */
+    public void commit(int productId, int quantity) {
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.held -= quantity;
+            entry.unpersisted += quantity;
+        }
+        dirty.add(productId);
+    }
+
+    /**
+     * Gives a reservation back to the available stock, for example when storing the order failed.
+     *
+     * @param productId the ID of the product
+     * @param quantity  the reserved quantity
+     */
+    public void release(int productId, int quantity) {
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.held -= quantity;
+            entry.available += quantity;
+        }
+    }
+
+    /**
+     * Returns the stock of a product that can still be reserved.
+     *
+     * @param productId the ID of the product
+     * @return the available quantity, or 0 for an unknown product
+     */
+    public int getAvailable(int productId) {
+        Entry entry = entry(productId);
+        if (entry == null) {
+            return 0;
+        }
+        synchronized (entry) {
+            return entry.available;
+        }
+    }
+
+    /**
+     * Writes every committed quantity that is not in the database yet.
+     *
+     * @return true if everything was written, false if the database rejected the batch
+     */
+    public boolean flush() {
+        synchronized (persistLock) {
+            return persist();
+        }
+    }
+
+    /**
+     * Compares the ledger with the stock stored in the database and corrects the ledger where they differ.
+     * Committed quantities are written first, so afterwards the available stock of each product is its
+     * stored quantity minus the reservations still open. Products added to the database are added to
+     * the ledger. Reservations keep working while this runs.
+     *
+     * @return the correction applied to the available stock, by product ID, for the products that differed
+     */
+    public Map<Integer, Integer> reconcile() {
+        Map<Integer, Integer> corrections = new HashMap<>();
+        synchronized (persistLock) {
+            if (!persist()) {
+                LOGGER.log(Level.WARNING, "Reconciling the stock ledger with unwritten stock changes");
+            }
+            for (Product product : productDAO.findAll()) {
+                Entry entry = entries.putIfAbsent(product.getId(), new Entry(product.getQuantity()));
+                if (entry == null) {
+                    continue;
+                }
+                synchronized (entry) {
+                    int expected = product.getQuantity() - entry.held - entry.unpersisted;
+                    if (expected != entry.available) {
+                        corrections.put(product.getId(), expected - entry.available);
+                        entry.available = expected;
+                    }
+                }
+            }
+        }
+        if (!corrections.isEmpty()) {
+            LOGGER.log(Level.INFO, "Stock ledger corrected for " + corrections.size() + " products");
+        }
+        return corrections;
+    }
+
+    public long getPersistedUnits() {
+        return persistedUnits.sum();
+    }
+
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    public long getFlushFailures() {
+        return flushFailures.sum();
+    }
+
+    /**
+     * Returns the entry of a product, loading a product created after the ledger.
+     * The product is read from the database rather than from the entity cache, like in {@link #reconcile()},
+     * as a cached copy could bring stock into the ledger that was changed since.
+     */
+    private Entry entry(int productId) {
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            Product product = productDAO.findCurrentById(productId);
+            if (product == null) {
+                return null;
+            }
+            Entry loaded = new Entry(product.getQuantity());
+            entry = entries.putIfAbsent(productId, loaded);
+            if (entry == null) {
+                entry = loaded;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Collects the committed quantities of every changed product and writes them in one batch.
+     * Products whose stored stock is too low are put back and the others are written without them.
+     * On failure the quantities are put back, to be written by the next attempt.
+     * Must be called with the persist lock held.
+     *
+     * @return true if every quantity was written
+     */
+    private boolean persist() {
+        Map<Integer, Integer> deltas = new HashMap<>();
+        for (Integer productId : dirty) {
+            dirty.remove(productId);
+            Entry entry = entries.get(productId);
+            if (entry == null) {
+                continue;
+            }
+            synchronized (entry) {
+                if (entry.unpersisted != 0) {
+                    deltas.put(productId, entry.unpersisted);
+                    entry.unpersisted = 0;
+                }
+            }
+        }
+        boolean complete = true;
+        while (!deltas.isEmpty()) {
+            try {
+                productDAO.applyStockDeltas(deltas);
+                flushes.increment();
+                deltas.values().forEach(persistedUnits::add);
+                return complete;
+            } catch (InsufficientStockException e) {
+                flushFailures.increment();
+                Map<Integer, Integer> held = new HashMap<>();
+                for (Integer productId : e.getProductIds()) {
+                    Integer quantity = deltas.remove(productId);
+                    if (quantity != null) {
+                        held.put(productId, quantity);
+                    }
+                }
+                LOGGER.log(Level.WARNING, "Stored stock is too low for committed orders of products "
+                        + e.getProductIds() + ", retrying once they are restocked");
+                putBack(held);
+                if (held.isEmpty()) {
+                    putBack(deltas);
+                    return false;
+                }
+                complete = false;
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                LOGGER.log(Level.WARNING, "Failed to write stock changes for " + deltas.size()
+                        + " products: " + e.getMessage());
+                putBack(deltas);
+                return false;
+            }
+        }
+        return complete;
+    }
+
+    /**
+     * Returns quantities that could not be written to their entries, to be written by the next attempt.
+     */
+    private void putBack(Map<Integer, Integer> deltas) {
+        deltas.forEach((productId, quantity) -> {
+            Entry entry = entries.get(productId);
+            if (entry != null) {
+                synchronized (entry) {
+                    entry.unpersisted += quantity;
+                }
+                dirty.add(productId);
+            }
+        });
+    }
+
+    private void flushLoop() {
+        long nextReconcile = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RECONCILE_INTERVAL_MS);
+        while (!stopped) {
+            long wait = flush() ? FLUSH_INTERVAL_MS : RETRY_BACKOFF_MS;
+            if (System.nanoTime() - nextReconcile >= 0) {
+                try {
+                    reconcile();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Reconciling the stock ledger failed: " + e.getMessage());
+                }
+                nextReconcile = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RECONCILE_INTERVAL_MS);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                // stop() interrupts the wait, the loop then exits
+            }
+        }
+    }
+
+    /**
+     * Stops the background writer and writes what is still pending.
+     */
+    private void stop() {
+        stopped = true;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flush()) {
+            LOGGER.log(Level.SEVERE, "Stock changes could not be written before shutdown");
+        }
+    }
+
+    private static final class Holder {
+        private static final StockLedger LEDGER = new StockLedger(new ProductDAO());
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.Business.Validators;
+
+import org.example.DataAccess.ProductDAO;
+import org.example.Model.Order;
+import org.example.Model.Product;
+
+/**
+ * Checks that the ordered product exists and has enough stock for the order.
+ * The product is read from the database rather than from the entity cache, whose copy may be stale,
+ * and inside a unit of work it is put in the identity map of the operation, so it is not read again
+ * by the rest of the order placement.
+ * The stock is still taken out with a guarded update, which is what protects concurrent orders.
+ */
+public class StockValidator implements Validator<Order> {
+    private final ProductDAO productDAO;
+
+    public StockValidator(ProductDAO productDAO) {
+        this.productDAO = productDAO;
+    }
+
+    @Override
+    public void validate(Order order) {
+        Product product = productDAO.findCurrentById(order.getProductId());
+        if (product == null || product.getQuantity() < order.getQuantity()) {
+            throw new IllegalArgumentException("Product with ID " + order.getProductId()
+                    + " not found or ordered quantity exceeds available stock.");
+        }
+    }
+
+    @Override
+    public int cost() {
+        return 5;
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.Business.Validators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a fixed chain of validators, cheapest first.
+ * The chain is sorted by {@link Validator#cost()} once, when the engine is built. Single objects are
+ * checked fail-fast, so an invalid object is usually rejected by a cheap check before the expensive ones run.
+ * Collections are checked in parallel on the common fork-join pool, and every violation of every object
+ * is collected instead of stopping at the first one.
+ *
+ * @param <T> the type of the validated objects
+ */
+public class ValidationEngine<T> {
+
+    private static final int PARALLEL_THRESHOLD = 512;
+
+    private final List<Validator<? super T>> validators;
+
+    /**
+     * Creates an engine for the given validators. Validators of equal cost keep their order.
+     *
+     * @param validators the validators every object must pass
+     */
+    public ValidationEngine(Collection<? extends Validator<? super T>> validators) {
+        List<Validator<? super T>> sorted = new ArrayList<>(validators);
+        sorted.sort(Comparator.comparingInt(Validator::cost));
+        this.validators = List.copyOf(sorted);
+    }
+
+    /**
+     * Validates one object, stopping at the first failed check.
+     *
+     * @param t the object to validate
+     * @throws IllegalArgumentException if a check fails
+     */
+    public void validate(T t) {
+        for (Validator<? super T> validator : validators) {
+            validator.validate(t);
+        }
+    }
+
+    /**
+     * Runs every check on one object and collects the messages of the failed ones.
+     *
+     * @param t the object to validate
+     * @return the violations, empty if the object is valid
+     */
+    public List<String> check(T t) {
+        List<String> violations = null;
+        for (Validator<? super T> validator : validators) {
+            try {
+                validator.validate(t);
+            } catch (IllegalArgumentException e) {
+                if (violations == null) {
+                    violations = new ArrayList<>(2);
+                }
+                violations.add(e.getMessage());
+            }
+        }
+        return violations == null ? List.of() : violations;
+    }
+
+    /**
+     * Runs every check on every object of a collection, in parallel for large collections.
+     *
+     * @param items the objects to validate
+     * @return the violations of each object, in the iteration order of {@code items}
+     */
+    public List<List<String>> checkAll(Collection<? extends T> items) {
+        List<? extends T> list = items instanceof List ? (List<? extends T>) items : new ArrayList<>(items);
+        @SuppressWarnings("unchecked")
+        List<String>[] results = (List<String>[]) new List<?>[list.size()];
+        if (list.size() < PARALLEL_THRESHOLD) {
+            new CheckTask(list, results, 0, list.size()).compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(new CheckTask(list, results, 0, list.size()));
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Validates every object of a collection, in parallel for large collections.
+     *
+     * @param items the objects to validate
+     * @throws ValidationException listing the violations of every invalid object
+     */
+    public void validateAll(Collection<? extends T> items) {
+        List<List<String>> violations = checkAll(items);
+        for (List<String> objectViolations : violations) {
+            if (!objectViolations.isEmpty()) {
+                throw new ValidationException(violations);
+            }
+        }
+    }
+
+    /**
+     * Checks a range of the list, splitting it in halves until it is small enough.
+     */
+    private final class CheckTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends T> items;
+        private final List<String>[] results;
+        private final int from;
+        private final int to;
+
+        private CheckTask(List<? extends T> items, List<String>[] results, int from, int to) {
+            this.items = items;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = check(items.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CheckTask(items, results, from, middle), new CheckTask(items, results, middle, to));
+        }
+    }
+}
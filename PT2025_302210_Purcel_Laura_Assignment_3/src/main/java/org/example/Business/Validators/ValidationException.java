@@ -0,0 +1,42 @@
+package org.example.Business.Validators;
+
+import java.util.List;
+
+/**
+ * Thrown when some objects of a collection are invalid. Carries the violations of every object,
+ * so all problems can be reported at once.
+ */
+public class ValidationException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<List<String>> violations;
+
+    public ValidationException(List<List<String>> violations) {
+        super(describe(violations));
+        this.violations = violations;
+    }
+
+    /**
+     * Returns the violations of each object, in the order the objects were validated.
+     *
+     * @return the violations, an empty list for each valid object
+     */
+    public List<List<String>> getViolations() {
+        return violations;
+    }
+
+    private static String describe(List<List<String>> violations) {
+        int invalid = 0;
+        String first = null;
+        for (int i = 0; i < violations.size(); i++) {
+            if (!violations.get(i).isEmpty()) {
+                invalid++;
+                if (first == null) {
+                    first = "item " + (i + 1) + ": " + String.join(" ", violations.get(i));
+                }
+            }
+        }
+        return invalid + " of " + violations.size() + " items are invalid, first " + first;
+    }
+}
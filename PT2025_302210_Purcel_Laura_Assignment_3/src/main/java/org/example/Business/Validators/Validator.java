@@ -2,4 +2,14 @@ package org.example.Business.Validators;
 
 public interface Validator<T> {
     public void validate(T t);
+
+    /**
+     * Returns the relative cost of this check, used by {@link ValidationEngine} to run cheap checks first.
+     * Simple field comparisons keep the default; checks that match patterns or call out should return more.
+     *
+     * @return the relative cost, 1 for a simple comparison
+     */
+    default int cost() {
+        return 1;
+    }
 }
@@ -1,29 +1,66 @@
 package org.example.Connection;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Singleton factory for managing JDBC connections to the database.
- * Loads the driver, creates new connections, and provides methods for closing JDBC resources.
+ * Loads the driver and keeps a bounded pool of physical connections which are lent out by
+ * {@link #getConnection()} and given back to the pool when the borrowed connection is closed.
+ * Idle connections are evicted after a while, connections are validated before reuse and
+ * connections that are held for too long are reported as leaks. The place a leaked connection was
+ * borrowed from is only recorded when the {@code orderdb.pool.traceLeaks} system property is set,
+ * as capturing a stack trace on every borrow is too costly to leave on.
  */
 public class ConnectionFactory {
 
     private static final Logger LOGGER = Logger.getLogger(ConnectionFactory.class.getName());
     private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
-    private static final String DBURL = "jdbc:mysql://localhost:3306/orderdb";
+    private static final String DBURL = "jdbc:mysql://localhost:3306/orderdb?useCursorFetch=true&rewriteBatchedStatements=true"
+            + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048";
     private static final String USER = "root";
     private static final String PASS = "root";
 
+    private static final int MIN_IDLE = 2;
+    private static final int MAX_SIZE = 10;
+    private static final long BORROW_TIMEOUT_MS = 5_000;
+    private static final long IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long VALIDATE_AFTER_IDLE_MS = 1_000;
+    private static final int VALIDATION_TIMEOUT_S = 2;
+    private static final long LEAK_THRESHOLD_MS = 60_000;
+    private static final long HOUSEKEEPING_PERIOD_MS = 30_000;
+    private static final boolean TRACE_LEAKS = Boolean.getBoolean("orderdb.pool.traceLeaks");
+
     private static ConnectionFactory singleInstance = new ConnectionFactory();
 
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits = new Semaphore(MAX_SIZE, true);
+    private final ScheduledExecutorService housekeeper;
+    private final List<Runnable> shutdownActions = new CopyOnWriteArrayList<>();
+    private volatile boolean shutdown;
+
     /**
-     * Private constructor that loads the JDBC driver.
+     * Private constructor that loads the JDBC driver and starts the pool housekeeping.
      */
     private ConnectionFactory() {
         try {
@@ -31,6 +68,14 @@ public class ConnectionFactory {
         } catch (ClassNotFoundException e) {
             e.printStackTrace();
         }
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_PERIOD_MS,
+                HOUSEKEEPING_PERIOD_MS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdownPool, "connection-pool-shutdown"));
     }
 
     /**
@@ -50,12 +95,197 @@ public class ConnectionFactory {
     }
 
     /**
-     * Returns a new connection from the singleton instance.
+     * Borrows a connection from the pool, opening a new physical connection if none is idle
+     * and the pool has not reached its maximum size.
+     *
+     * @return a pooled Connection, or null if none could be obtained within the borrow timeout
+     */
+    private Connection borrowConnection() {
+        if (shutdown) {
+            LOGGER.log(Level.WARNING, "The connection pool has been shut down");
+            return null;
+        }
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                LOGGER.log(Level.WARNING, "Timed out waiting for a database connection, " + borrowed.size()
+                        + " connections are in use");
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                break;
+            }
+            closePhysical(pooled);
+        }
+        if (pooled == null) {
+            Connection physical = createConnection();
+            if (physical == null) {
+                permits.release();
+                return null;
+            }
+            pooled = new PooledConnection(physical);
+        }
+
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.borrowSite = TRACE_LEAKS ? new Throwable("Connection borrowed here") : null;
+        pooled.leakReported = false;
+        borrowed.add(pooled);
+        return pooled.newHandle(this);
+    }
+
+    /**
+     * Checks an idle connection before it is lent out again.
+     * Connections that were used recently are trusted without a round trip to the server.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.returnedAt < VALIDATE_AFTER_IDLE_MS) {
+                return true;
+            }
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_S);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gives a borrowed connection back to the pool, resetting any transaction state left on it.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        boolean reusable = !shutdown;
+        try {
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            reusable = reusable && !pooled.physical.isClosed();
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        if (reusable) {
+            pooled.returnedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } else {
+            closePhysical(pooled);
+        }
+        permits.release();
+    }
+
+    /**
+     * Evicts connections that stayed idle for too long, tops the pool up to its minimum size
+     * and reports connections that were borrowed but never returned.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : idle) {
+            if (idle.size() <= MIN_IDLE) {
+                break;
+            }
+            if (now - pooled.returnedAt > IDLE_TIMEOUT_MS && idle.remove(pooled)) {
+                closePhysical(pooled);
+            }
+        }
+        while (!shutdown && idle.size() + borrowed.size() < MIN_IDLE) {
+            Connection physical = createConnection();
+            if (physical == null) {
+                break;
+            }
+            PooledConnection pooled = new PooledConnection(physical);
+            pooled.returnedAt = now;
+            idle.offerLast(pooled);
+        }
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > LEAK_THRESHOLD_MS) {
+                pooled.leakReported = true;
+                LOGGER.log(Level.WARNING, "Possible connection leak, a connection has been borrowed for "
+                        + (now - pooled.borrowedAt) + " ms"
+                        + (TRACE_LEAKS ? "" : "; set -Dorderdb.pool.traceLeaks=true to see where"), pooled.borrowSite);
+            }
+        }
+    }
+
+    /**
+     * Runs the registered shutdown actions, then stops housekeeping and closes every idle connection.
+     * Connections still borrowed are closed when they are given back.
+     */
+    private synchronized void shutdownPool() {
+        if (shutdown) {
+            return;
+        }
+        for (Runnable action : shutdownActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "A shutdown action failed", e);
+            }
+        }
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closePhysical(pooled);
+        }
+    }
+
+    private void closePhysical(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "An error occurred while trying to close a pooled connection");
+        }
+    }
+
+    /**
+     * Returns a pooled connection from the singleton instance.
+     * Closing the returned connection gives it back to the pool.
+     * Inside a {@link UnitOfWork} the connection bound to the current thread is returned instead,
+     * and closing it leaves the transaction open.
      *
      * @return a Connection object to the database
      */
     public static Connection getConnection() {
-        return singleInstance.createConnection();
+        Connection bound = UnitOfWork.currentConnection();
+        if (bound != null) {
+            return bound;
+        }
+        return singleInstance.borrowConnection();
+    }
+
+    /**
+     * Borrows a connection straight from the pool, ignoring any unit of work bound to the thread.
+     *
+     * @return a pooled Connection, or null if none could be obtained
+     */
+    static Connection borrow() {
+        return singleInstance.borrowConnection();
+    }
+
+    /**
+     * Registers an action run when the pool shuts down, while connections can still be borrowed.
+     * Used by background writers to flush pending work before the pool is closed.
+     *
+     * @param action the action to run before shutdown
+     */
+    public static void beforeShutdown(Runnable action) {
+        singleInstance.shutdownActions.add(action);
+    }
+
+    /**
+     * Closes every idle pooled connection and stops handing out new ones.
+     * This also runs automatically when the JVM shuts down.
+     */
+    public static void shutdown() {
+        singleInstance.shutdownPool();
     }
 
     /**
@@ -102,4 +332,59 @@ public class ConnectionFactory {
             }
         }
     }
+
+    /**
+     * A physical connection owned by the pool, together with its bookkeeping.
+     */
+    private static final class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long returnedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Wraps the physical connection in a proxy whose close() returns it to the pool.
+         * Each borrow gets its own proxy, so a stale reference cannot close someone else's connection.
+         */
+        private Connection newHandle(ConnectionFactory pool) {
+            AtomicBoolean closed = new AtomicBoolean();
+            InvocationHandler handler = (proxy, method, args) -> invoke(pool, closed, proxy, method, args);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, handler);
+        }
+
+        private Object invoke(ConnectionFactory pool, AtomicBoolean closed, Object proxy, Method method,
+                              Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        pool.release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || physical.isClosed();
+                case "toString":
+                    return "Pooled" + physical;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
 }
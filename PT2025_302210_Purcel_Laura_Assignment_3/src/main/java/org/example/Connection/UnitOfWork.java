@@ -0,0 +1,190 @@
+package org.example.Connection;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Binds a single connection and transaction to the current thread for the duration of a business operation.
+ * While a unit of work is active, {@link ConnectionFactory#getConnection()} hands out that connection,
+ * so DAOs and {@code Log} join the transaction without any change at their call sites.
+ * Work is committed once at the end, or rolled back if it throws or if a DAO reported a failure.
+ */
+public final class UnitOfWork {
+
+    private static final Logger LOGGER = Logger.getLogger(UnitOfWork.class.getName());
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Connection connection;
+    private final Connection shared;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private final List<Runnable> afterRollback = new ArrayList<>();
+    private final Map<Class<?>, Object> resources = new HashMap<>();
+    private boolean rollbackOnly;
+
+    private UnitOfWork(Connection connection) {
+        this.connection = connection;
+        this.shared = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "isClosed":
+                            return connection.isClosed();
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Runs the given work inside a transaction on one connection and returns its result.
+     * If a unit of work is already active on this thread, the work simply joins it.
+     *
+     * @param work the business operation to run
+     * @param <R>  the result type
+     * @return the result of the work
+     * @throws IllegalStateException if no connection could be obtained or the transaction was rolled back
+     */
+    public static <R> R execute(Supplier<R> work) {
+        if (CURRENT.get() != null) {
+            return work.get();
+        }
+        Connection connection = ConnectionFactory.borrow();
+        if (connection == null) {
+            throw new IllegalStateException("No database connection available");
+        }
+        UnitOfWork unit = new UnitOfWork(connection);
+        CURRENT.set(unit);
+        R result;
+        try {
+            connection.setAutoCommit(false);
+            result = work.get();
+            if (unit.rollbackOnly) {
+                throw new IllegalStateException("The operation failed and was rolled back");
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            unit.rollbackQuietly();
+            throw new IllegalStateException("Transaction failed: " + e.getMessage(), e);
+        } catch (RuntimeException | Error e) {
+            unit.rollbackQuietly();
+            throw e;
+        } finally {
+            CURRENT.remove();
+            ConnectionFactory.close(connection);
+        }
+        unit.afterCommit.forEach(Runnable::run);
+        return result;
+    }
+
+    /**
+     * Runs the given work inside a transaction on one connection.
+     *
+     * @param work the business operation to run
+     */
+    public static void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Tells whether a unit of work is active on the current thread.
+     *
+     * @return true if a transaction is bound to this thread
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Marks the active unit of work so that it is rolled back instead of committed.
+     * Does nothing when no unit of work is active.
+     */
+    public static void markRollbackOnly() {
+        UnitOfWork unit = CURRENT.get();
+        if (unit != null) {
+            unit.rollbackOnly = true;
+        }
+    }
+
+    /**
+     * Registers an action to run once the active unit of work has committed.
+     * Without an active unit of work the action runs immediately.
+     *
+     * @param action the action to run after commit
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            action.run();
+        } else {
+            unit.afterCommit.add(action);
+        }
+    }
+
+    /**
+     * Registers an action to run if the active unit of work is rolled back,
+     * typically to undo in-memory changes made alongside the transaction.
+     * Without an active unit of work there is nothing to roll back and the action is ignored.
+     *
+     * @param action the action to run after rollback
+     */
+    public static void afterRollback(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit != null) {
+            unit.afterRollback.add(action);
+        }
+    }
+
+    /**
+     * Returns a resource scoped to the active unit of work, creating it on first use.
+     * The resource is dropped when the unit of work ends, whether it commits or rolls back.
+     *
+     * @param key     the class of the resource, used as its key
+     * @param factory creates the resource the first time it is requested
+     * @param <V>     the resource type
+     * @return the resource, or null if no unit of work is active
+     */
+    public static <V> V resource(Class<V> key, Supplier<V> factory) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            return null;
+        }
+        return key.cast(unit.resources.computeIfAbsent(key, k -> factory.get()));
+    }
+
+    /**
+     * Returns the connection bound to the current thread, whose close() is a no-op.
+     *
+     * @return the shared connection, or null if no unit of work is active
+     */
+    static Connection currentConnection() {
+        UnitOfWork unit = CURRENT.get();
+        return unit == null ? null : unit.shared;
+    }
+
+    private void rollbackQuietly() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "An error occurred while trying to roll back the transaction");
+        }
+        afterRollback.forEach(Runnable::run);
+    }
+}
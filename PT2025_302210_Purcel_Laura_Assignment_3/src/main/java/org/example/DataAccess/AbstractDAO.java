@@ -1,33 +1,198 @@
 package org.example.DataAccess;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.*;
+import java.lang.reflect.ParameterizedType;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import org.example.Connection.ConnectionFactory;
+import org.example.Connection.UnitOfWork;
 
 import javax.swing.table.DefaultTableModel;
 
 /**
  * Generic abstract DAO class for performing basic database operations on any type T.
- * Uses reflection to dynamically generate SQL queries and manipulate object fields.
+ * Uses the compiled {@link EntityMetadata} of T to generate SQL queries and to read and write object fields.
  *
  * @param <T> the type of objects handled by this DAO
  */
 public class AbstractDAO<T> {
     protected static final Logger LOGGER = Logger.getLogger(AbstractDAO.class.getName());
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final Map<Class<?>, EntityCache<?>> CACHES = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, QueryCache<Object>> QUERY_CACHES = new ConcurrentHashMap<>();
     private final Class<T> type;
+    private final EntityMetadata<T> metadata;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private EntityCache<T> cache;
+    private boolean dirtyTracking;
+    private QueryCache<Object> queryCache;
 
     /**
      * Constructor that uses reflection to determine the actual class of T at runtime.
+     * The class of T is read from the nearest superclass declaration that binds it,
+     * so a DAO may itself be subclassed, for example by a stub in a test.
      */
+    @SuppressWarnings("unchecked")
     public AbstractDAO() {
-        this.type = (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+        Class<?> dao = getClass();
+        while (!(dao.getGenericSuperclass() instanceof ParameterizedType)) {
+            dao = dao.getSuperclass();
+        }
+        this.type = (Class<T>) ((ParameterizedType) dao.getGenericSuperclass()).getActualTypeArguments()[0];
+        this.metadata = EntityMetadata.of(type);
+    }
+
+    /**
+     * Enables the read-through cache used by {@link #findById(int)} for this entity type.
+     * The cache is shared by every DAO of the same type, so writes through any of them invalidate it.
+     *
+     * @param maxSize   the maximum number of cached objects
+     * @param ttlMillis how long an object may be served from the cache, in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    protected void enableCache(int maxSize, long ttlMillis) {
+        cache = (EntityCache<T>) CACHES.computeIfAbsent(type, t -> new EntityCache<T>(maxSize, ttlMillis));
+    }
+
+    /**
+     * Enables dirty tracking for this entity type.
+     * Objects loaded inside a {@link UnitOfWork} remember the column values they were read with,
+     * and {@link #update(Object)} of the same object in the same unit then only writes the columns
+     * that differ from them, or nothing at all when no column changed. The snapshots belong to the
+     * loaded objects, not to their IDs, and are dropped when the unit of work ends.
+     */
+    protected void enableDirtyTracking() {
+        dirtyTracking = true;
+    }
+
+    /**
+     * Enables caching of page and count results for this entity type.
+     * A result is served again until the table is written through any DAO, using the version
+     * stamps of {@link TableVersions}, or until it expires. Queries run inside a {@link UnitOfWork}
+     * bypass the cache, as they may see rows that are not committed yet.
+     *
+     * @param maxEntries the maximum number of cached results
+     * @param ttlMillis  how long a result may be served, in milliseconds, bounding how stale it can get
+     *                   when the table is changed by another client
+     */
+    protected void enableQueryCache(int maxEntries, long ttlMillis) {
+        queryCache = QUERY_CACHES.computeIfAbsent(type, t -> new QueryCache<>(maxEntries, ttlMillis));
+    }
+
+    /**
+     * Returns the current version of the table of T, to be compared later with {@link #changedSince(long)}.
+     *
+     * @return the table version
+     */
+    public long version() {
+        return TableVersions.current(metadata.getTableName());
+    }
+
+    /**
+     * Tells whether the table of T was written since a version was read.
+     *
+     * @param version a version returned by {@link #version()}
+     * @return true if the table changed since, false if it still holds the same rows
+     */
+    public boolean changedSince(long version) {
+        return TableVersions.changedSince(metadata.getTableName(), version);
+    }
+
+    /**
+     * Raises the version of the table of T. Called once by every write, after its statements were executed.
+     */
+    protected void touch() {
+        TableVersions.bump(metadata.getTableName());
+    }
+
+    /**
+     * Returns copies of the rows cached for a query, or null if they are not cached at this version.
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> cachedRows(Object key, long version) {
+        if (queryCache == null || UnitOfWork.isActive()) {
+            return null;
+        }
+        List<T> rows = (List<T>) queryCache.get(key, version);
+        return rows == null ? null : copyAll(rows);
+    }
+
+    private void cacheRows(Object key, long version, List<T> rows) {
+        if (queryCache != null && !UnitOfWork.isActive()) {
+            queryCache.put(key, version, List.copyOf(copyAll(rows)));
+        }
+    }
+
+    private List<T> copyAll(List<T> rows) {
+        List<T> copies = new ArrayList<>(rows.size());
+        for (T t : rows) {
+            copies.add(metadata.copy(t));
+        }
+        return copies;
+    }
+
+    /**
+     * Remembers the column values of an object as the state it was last read or written with.
+     * Only objects of the active {@link UnitOfWork} are tracked.
+     */
+    private void remember(T t) {
+        if (dirtyTracking) {
+            EntityContext context = EntityContext.current();
+            if (context != null) {
+                context.remember(t, metadata.snapshot(t));
+            }
+        }
+    }
+
+    /**
+     * Returns the read-through cache of this entity type, for example to read its hit and miss counters.
+     *
+     * @return the cache, or null if caching is not enabled
+     */
+    public EntityCache<T> getCache() {
+        return cache;
+    }
+
+    /**
+     * Drops a cached object after a write, and again once the surrounding transaction commits
+     * so that a read racing with the write cannot leave the old state behind.
+     * The object is also dropped from the identity map of the current operation.
+     *
+     * @param id the ID of the written object
+     */
+    protected void invalidateCached(int id) {
+        EntityContext context = EntityContext.current();
+        if (context != null) {
+            context.remove(type, id);
+        }
+        if (cache != null) {
+            cache.invalidate(id);
+            UnitOfWork.afterCommit(() -> cache.invalidate(id));
+        }
+    }
+
+    /**
+     * Forgets the remembered state of an object that was deleted or changed behind the tracked columns.
+     *
+     * @param id the ID of the object
+     */
+    protected void forgetSnapshot(int id) {
+        if (dirtyTracking) {
+            EntityContext context = EntityContext.current();
+            if (context != null) {
+                context.forget(type, id);
+            }
+        }
     }
 
     /**
@@ -37,42 +202,367 @@ public class AbstractDAO<T> {
      * @return the generated SQL query string
      */
     private String createSelectQuery(String field) {
-        return "SELECT * FROM `" + type.getSimpleName() + "` WHERE " + field + " =?";
+        return metadata.query("select:" + field, () -> buildSelectQuery(field));
+    }
+
+    private String buildSelectQuery(String field) {
+        return "SELECT " + metadata.getColumnList() + " FROM `" + metadata.getTableName() + "` WHERE " + field + " =?";
+    }
+
+    /**
+     * Creates a SELECT SQL query without a WHERE clause, returning every row of the table.
+     *
+     * @return the generated SQL query string
+     */
+    private String createSelectAllQuery() {
+        return metadata.query("selectAll", this::buildSelectAllQuery);
+    }
+
+    private String buildSelectAllQuery() {
+        return "SELECT " + metadata.getColumnList() + " FROM `" + metadata.getTableName() + '`';
     }
 
     /**
-     * Retrieves all records of type T from the database by selecting all IDs and loading each object using findById.
+     * Retrieves all records of type T from the database with a single query on a single connection.
      *
      * @return a list of all T objects from the database
      */
     public List<T> findAll() {
-        List<T> resultList = new ArrayList<>();
-        String query = "SELECT id FROM `" + type.getSimpleName() + '`';
+        String query = createSelectAllQuery();
 
         try (Connection connection = ConnectionFactory.getConnection();
              PreparedStatement statement = connection.prepareStatement(query);
              ResultSet resultSet = statement.executeQuery()) {
 
-            while (resultSet.next()) {
-                int id = resultSet.getInt("id");
-                T obj = findById(id);
-                if (obj != null) {
-                    resultList.add(obj);
+            return createObjects(resultSet);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findAll " + e.getMessage(), e);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Streams all records of type T from the database without loading the whole table into memory.
+     * Rows are fetched from the server in chunks of {@link RowStreams#FETCH_SIZE} and mapped lazily.
+     * The returned stream holds an open connection and must be closed by the caller,
+     * preferably with a try-with-resources block.
+     *
+     * @return a lazily populated stream of T objects
+     */
+    public Stream<T> stream() {
+        return RowStreams.open(createSelectAllQuery(), metadata::read, type.getName() + "DAO");
+    }
+
+    /**
+     * Passes every record of type T to the given callback, streaming rows from the database.
+     * The underlying connection is released once all rows have been consumed.
+     *
+     * @param action the callback invoked for each object
+     */
+    public void forEach(Consumer<? super T> action) {
+        try (Stream<T> rows = stream()) {
+            rows.forEach(action);
+        }
+    }
+
+    /**
+     * Creates a pagination query ordered by the given column, with the ID as tie breaker,
+     * that skips a number of rows. Its parameters are the page size ({@code LIMIT}) and the number
+     * of rows to skip ({@code OFFSET}); the database still reads the skipped rows, so the query
+     * gets slower the further into the table the page starts.
+     *
+     * @param orderColumn the column to order by
+     * @param descending  whether the rows are returned in descending order
+     * @return the generated SQL query string
+     */
+    private String createOffsetPageQuery(String orderColumn, boolean descending) {
+        return metadata.query("page:" + orderColumn + (descending ? ":desc" : ":asc") + ":offset", () -> {
+            String direction = descending ? " DESC" : " ASC";
+            StringBuilder sb = new StringBuilder(createSelectAllQuery()).append(" ORDER BY ");
+            if (!orderColumn.equals(metadata.getColumnName(0))) {
+                sb.append(orderColumn).append(direction).append(", ");
+            }
+            return sb.append("id").append(direction).append(" LIMIT ? OFFSET ?").toString();
+        });
+    }
+
+    private String createCountQuery() {
+        return metadata.query("count", () -> "SELECT COUNT(*) FROM `" + metadata.getTableName() + '`');
+    }
+
+    /**
+     * Creates a keyset pagination query ordered by the given column, with the ID as tie breaker.
+     * The page after a row is selected by comparing (column, id) with the values of that row,
+     * so an index on (column, id) lets the database seek straight to the page.
+     * MySQL sorts NULL before every other value, so NULL rows come first in ascending order and last
+     * in descending order; the predicate follows that order, as a row comparison alone never matches NULL.
+     *
+     * @param orderColumn the column to order by
+     * @param descending  whether the rows are returned in descending order
+     * @param after       whether the query continues after a given row
+     * @param afterNull   whether the ordering column of that row is NULL; its value is then not bound
+     * @return the generated SQL query string
+     */
+    private String createPageQuery(String orderColumn, boolean descending, boolean after, boolean afterNull) {
+        String key = "page:" + orderColumn + (descending ? ":desc" : ":asc")
+                + (after ? (afterNull ? ":afterNull" : ":after") : "");
+        return metadata.query(key, () -> buildPageQuery(orderColumn, descending, after, afterNull));
+    }
+
+    private String buildPageQuery(String orderColumn, boolean descending, boolean after, boolean afterNull) {
+        String direction = descending ? " DESC" : " ASC";
+        String comparison = descending ? " < " : " > ";
+        StringBuilder sb = new StringBuilder(createSelectAllQuery());
+        boolean byId = orderColumn.equals(metadata.getColumnName(0));
+        if (after && byId) {
+            sb.append(" WHERE id").append(comparison).append('?');
+        } else if (after && afterNull) {
+            sb.append(descending ? " WHERE " : " WHERE ((")
+                    .append(orderColumn).append(" IS NULL AND id").append(comparison).append('?');
+            if (!descending) {
+                sb.append(") OR ").append(orderColumn).append(" IS NOT NULL)");
+            }
+        } else if (after) {
+            sb.append(descending ? " WHERE ((" : " WHERE (")
+                    .append(orderColumn).append(", id)").append(comparison).append("(?, ?)");
+            if (descending) {
+                sb.append(" OR ").append(orderColumn).append(" IS NULL)");
+            }
+        }
+        sb.append(" ORDER BY ");
+        if (!byId) {
+            sb.append(orderColumn).append(direction).append(", ");
+        }
+        sb.append("id").append(direction).append(" LIMIT ?");
+        return sb.toString();
+    }
+
+    /**
+     * Retrieves one page of records of type T, ordered and limited by the database.
+     * Pass the last object of the previous page to continue after it, or null for the first page.
+     * Rows whose ordering column is NULL are included, first in ascending order and last in descending order.
+     *
+     * @param orderColumn the column to order by
+     * @param descending  whether to return the rows in descending order
+     * @param after       the last object of the previous page, or null
+     * @param limit       the maximum number of objects to return
+     * @return the objects of the page, at most {@code limit}
+     * @throws IllegalArgumentException if {@code orderColumn} is not a column of T
+     */
+    public List<T> findPage(String orderColumn, boolean descending, T after, int limit) {
+        int column = metadata.indexOf(orderColumn);
+        long version = version();
+        Object key = after == null
+                ? Arrays.asList("page", orderColumn, descending, limit)
+                : Arrays.asList("page", orderColumn, descending, limit, metadata.get(after, column), metadata.getId(after));
+        List<T> cached = cachedRows(key, version);
+        if (cached != null) {
+            return cached;
+        }
+        boolean afterNull = after != null && metadata.get(after, column) == null;
+        String query = createPageQuery(orderColumn, descending, after != null, afterNull);
+
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            int parameter = 1;
+            if (after != null) {
+                if (column != 0 && !afterNull) {
+                    metadata.bind(statement, parameter++, after, column);
+                }
+                metadata.bind(statement, parameter++, after, 0);
+            }
+            statement.setInt(parameter, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<T> rows = createObjects(resultSet);
+                cacheRows(key, version, rows);
+                return rows;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findPage " + e.getMessage(), e);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Retrieves the page of records of type T starting at a given row, ordered and limited by the database.
+     * Used to jump to a page without reading the ones before it; continuing after a known object
+     * with {@link #findPage(String, boolean, Object, int)} is cheaper and should be preferred.
+     *
+     * @param orderColumn the column to order by
+     * @param descending  whether to return the rows in descending order
+     * @param offset      the number of rows to skip
+     * @param limit       the maximum number of objects to return
+     * @return the objects of the page, at most {@code limit}
+     * @throws IllegalArgumentException if {@code orderColumn} is not a column of T
+     */
+    public List<T> findPageAt(String orderColumn, boolean descending, int offset, int limit) {
+        metadata.indexOf(orderColumn);
+        long version = version();
+        Object key = Arrays.asList("pageAt", orderColumn, descending, offset, limit);
+        List<T> cached = cachedRows(key, version);
+        if (cached != null) {
+            return cached;
+        }
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(createOffsetPageQuery(orderColumn, descending))) {
+
+            statement.setInt(1, limit);
+            statement.setInt(2, offset);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<T> rows = createObjects(resultSet);
+                cacheRows(key, version, rows);
+                return rows;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findPageAt " + e.getMessage(), e);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Counts the records of type T in the database.
+     *
+     * @return the number of rows in the table, or 0 if the query failed
+     */
+    public int count() {
+        long version = version();
+        boolean cacheable = queryCache != null && !UnitOfWork.isActive();
+        if (cacheable) {
+            Object cached = queryCache.get("count", version);
+            if (cached != null) {
+                return (Integer) cached;
+            }
+        }
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(createCountQuery());
+             ResultSet resultSet = statement.executeQuery()) {
+
+            int count = resultSet.next() ? resultSet.getInt(1) : 0;
+            if (cacheable) {
+                queryCache.put("count", version, count);
+            }
+            return count;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:count " + e.getMessage(), e);
+        }
+        return 0;
+    }
+
+    /**
+     * Retrieves the objects of type T matching the given criteria.
+     * Filtering, ordering and the limit are applied by the database.
+     *
+     * @param criteria the conditions, ordering and limit of the query
+     * @return the matching objects
+     * @throws IllegalArgumentException if the criteria reference a column T does not have
+     */
+    public List<T> find(Criteria criteria) {
+        return find(criteria, new String[0]);
+    }
+
+    /**
+     * Retrieves the objects of type T matching the given criteria, reading only the given columns.
+     * Fields that are not selected keep their default values.
+     *
+     * @param criteria the conditions, ordering and limit of the query
+     * @param columns  the columns to read, or none to read every column
+     * @return the matching, possibly partially populated, objects
+     * @throws IllegalArgumentException if the criteria or the projection reference a column T does not have
+     */
+    public List<T> find(Criteria criteria, String... columns) {
+        int[] selected = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            selected[i] = metadata.indexOf(columns[i]);
+        }
+        String projection = columns.length == 0 ? metadata.getColumnList() : String.join(", ", columns);
+        String suffix = criteria.shape();
+        String query = metadata.query("find:" + projection + suffix, () -> "SELECT " + projection
+                + " FROM `" + metadata.getTableName() + '`' + criteria.toSql(metadata));
+
+        List<T> list = new ArrayList<>();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            criteria.bind(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    list.add(columns.length == 0 ? createObject(resultSet) : metadata.read(resultSet, selected));
                 }
             }
         } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "findAll using findById failed: " + e.getMessage(), e);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:find " + e.getMessage(), e);
         }
-        return resultList;
+        return list;
     }
 
     /**
      * Finds and returns a single object of type T by its ID.
+     * Inside a {@link UnitOfWork} the object is kept in the identity map of the operation, so every
+     * later lookup of the same ID in that operation returns the same object without reading the row again.
+     * When caching is enabled, a copy of the cached object is returned if there is one.
+     * Objects read inside a {@link UnitOfWork} are not cached, as they may not be committed yet.
      *
      * @param id the primary key of the desired object
      * @return the object of type T, or null if not found
      */
     public T findById(int id) {
+        EntityContext context = EntityContext.current();
+        if (context == null) {
+            return findCachedOrLoad(id);
+        }
+        T known = context.get(type, id);
+        if (known == null) {
+            known = findCachedOrLoad(id);
+            if (known != null) {
+                context.put(type, id, known);
+            }
+        }
+        return known;
+    }
+
+    /**
+     * Reads a single object of type T by its ID from the database, bypassing the entity cache,
+     * for checks that must not act on a copy up to the cache's time to live old.
+     * Inside a {@link UnitOfWork} the object replaces any copy of the row in the identity map,
+     * so later lookups of the same ID in that operation return it.
+     *
+     * @param id the primary key of the desired object
+     * @return the object of type T, or null if not found
+     */
+    public T findCurrentById(int id) {
+        T loaded = loadById(id);
+        EntityContext context = EntityContext.current();
+        if (context != null) {
+            if (loaded == null) {
+                context.remove(type, id);
+            } else {
+                context.put(type, id, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private T findCachedOrLoad(int id) {
+        if (cache != null) {
+            T cached = cache.get(id);
+            if (cached != null) {
+                T copy = metadata.copy(cached);
+                remember(copy);
+                return copy;
+            }
+        }
+        T loaded = loadById(id);
+        if (cache != null && loaded != null && !UnitOfWork.isActive()) {
+            cache.put(id, metadata.copy(loaded));
+        }
+        return loaded;
+    }
+
+    /**
+     * Loads a single object of type T by its ID from the database.
+     */
+    private T loadById(int id) {
         Connection connection = null;
         PreparedStatement statement = null;
         ResultSet resultSet = null;
@@ -83,9 +573,11 @@ public class AbstractDAO<T> {
             statement.setInt(1, id);
             resultSet = statement.executeQuery();
 
-            return createObjects(resultSet).get(0);
+            List<T> objects = createObjects(resultSet);
+            return objects.isEmpty() ? null : objects.get(0);
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, type.getName() + "DAO:findById " + e.getMessage());
+            UnitOfWork.markRollbackOnly();
         } finally {
             ConnectionFactory.close(resultSet);
             ConnectionFactory.close(statement);
@@ -95,60 +587,60 @@ public class AbstractDAO<T> {
     }
 
     /**
-     * Creates a list of objects of type T from a ResultSet using reflection.
+     * Creates a list of objects of type T from a ResultSet using the compiled row mapper.
      *
      * @param resultSet the ResultSet containing data from a SQL query
      * @return a list of instantiated and populated T objects
      */
     private List<T> createObjects(ResultSet resultSet) {
         List<T> list = new ArrayList<T>();
-        Constructor[] ctors = type.getDeclaredConstructors();
-        Constructor ctor = null;
-        for (int i = 0; i < ctors.length; i++) {
-            ctor = ctors[i];
-            if (ctor.getGenericParameterTypes().length == 0)
-                break;
-        }
         try {
             while (resultSet.next()) {
-                ctor.setAccessible(true);
-                T instance = (T) ctor.newInstance();
-                for (Field field : type.getDeclaredFields()) {
-                    String fieldName = field.getName();
-                    Object value = resultSet.getObject(fieldName);
-                    PropertyDescriptor propertyDescriptor = new PropertyDescriptor(fieldName, type);
-                    Method method = propertyDescriptor.getWriteMethod();
-                    method.invoke(instance, value);
-                }
-                list.add(instance);
+                list.add(createObject(resultSet));
             }
-        } catch (InstantiationException | IllegalAccessException | SecurityException |
-                 IllegalArgumentException | InvocationTargetException | SQLException |
-                 IntrospectionException e) {
+        } catch (SQLException e) {
             e.printStackTrace();
         }
         return list;
     }
 
+    /**
+     * Creates a single object of type T from the current row of a ResultSet.
+     * Columns are bound by index, in the order given by the entity metadata.
+     *
+     * @param resultSet the ResultSet positioned on the row to map
+     * @return an instantiated and populated T object
+     * @throws SQLException if a column cannot be read
+     */
+    private T createObject(ResultSet resultSet) throws SQLException {
+        T t = metadata.read(resultSet);
+        remember(t);
+        return t;
+    }
+
     /**
      * Creates an SQL INSERT query string for the type T, excluding the ID field.
      *
      * @return the INSERT SQL query
      */
     public String createInsertQuery() {
+        return metadata.query("insert", this::buildInsertQuery);
+    }
+
+    private String buildInsertQuery() {
         StringBuilder sb = new StringBuilder();
-        sb.append("INSERT INTO `").append(type.getSimpleName()).append("` (");
+        sb.append("INSERT INTO `").append(metadata.getTableName()).append("` (");
 
-        Field[] fields = type.getDeclaredFields();
-        for (int i = 1; i < fields.length; i++) {
-            sb.append(fields[i].getName());
-            if (i < fields.length - 1) sb.append(", ");
+        int columns = metadata.getColumnCount();
+        for (int i = 1; i < columns; i++) {
+            sb.append(metadata.getColumnName(i));
+            if (i < columns - 1) sb.append(", ");
         }
 
         sb.append(") VALUES (");
-        for (int i = 1; i < fields.length; i++) {
+        for (int i = 1; i < columns; i++) {
             sb.append("?");
-            if (i < fields.length - 1) sb.append(", ");
+            if (i < columns - 1) sb.append(", ");
         }
         sb.append(")");
         return sb.toString();
@@ -156,27 +648,67 @@ public class AbstractDAO<T> {
 
     /**
      * Inserts a new object of type T into the database.
+     * The ID generated by the database is set on the object.
      *
      * @param t the object to insert
-     * @return the inserted object
+     * @return the inserted object, carrying its generated ID
      */
     public T insert(T t) {
         String query = createInsertQuery();
         try (Connection connection = ConnectionFactory.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
 
-            Field[] fields = type.getDeclaredFields();
-            for (int i = 1; i < fields.length; i++) {
-                fields[i].setAccessible(true);
-                statement.setObject(i, fields[i].get(t));
+            for (int i = 1; i < metadata.getColumnCount(); i++) {
+                metadata.bind(statement, i, t, i);
             }
             statement.executeUpdate();
-        } catch (SQLException | IllegalAccessException e) {
+            touch();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (keys.next()) {
+                    metadata.setId(t, keys.getInt(1));
+                    invalidateCached(metadata.getId(t));
+                }
+            }
+        } catch (SQLException e) {
             LOGGER.log(Level.WARNING, "Insert failed: " + e.getMessage(), e);
+            UnitOfWork.markRollbackOnly();
         }
         return t;
     }
 
+    /**
+     * Creates an SQL UPDATE query string for the type T that rewrites every column except the ID.
+     *
+     * @return the UPDATE SQL query
+     */
+    private String createUpdateQuery() {
+        return metadata.query("update", this::buildUpdateQuery);
+    }
+
+    private String buildUpdateQuery() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("UPDATE `").append(metadata.getTableName()).append("` SET ");
+
+        int columns = metadata.getColumnCount();
+        for (int i = 1; i < columns; i++) {
+            sb.append(metadata.getColumnName(i)).append(" = ?");
+            if (i < columns - 1) sb.append(", ");
+        }
+        sb.append(" WHERE id = ?");
+        return sb.toString();
+    }
+
+    /**
+     * Binds every column of an object to a statement created by {@link #createUpdateQuery()}.
+     */
+    private void bindUpdate(PreparedStatement statement, T t) throws SQLException {
+        int columns = metadata.getColumnCount();
+        for (int i = 1; i < columns; i++) {
+            metadata.bind(statement, i, t, i);
+        }
+        metadata.bind(statement, columns, t, 0);
+    }
+
     /**
      * Updates an existing object of type T in the database based on its ID.
      *
@@ -184,50 +716,312 @@ public class AbstractDAO<T> {
      * @return the updated object
      */
     public T update(T t) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("UPDATE `").append(type.getSimpleName()).append("` SET ");
+        EntityContext context = dirtyTracking ? EntityContext.current() : null;
+        Object[] before = context == null ? null : context.snapshot(t);
+        if (before != null) {
+            return updateChanged(t, before);
+        }
+        String query = createUpdateQuery();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
 
-        Field[] fields = type.getDeclaredFields();
-        for (int i = 1; i < fields.length; i++) {
-            sb.append(fields[i].getName()).append(" = ?");
-            if (i < fields.length - 1) sb.append(", ");
+            bindUpdate(statement, t);
+            statement.executeUpdate();
+            touch();
+            invalidateCached(metadata.getId(t));
+            remember(t);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Update failed: " + e.getMessage(), e);
+            UnitOfWork.markRollbackOnly();
         }
-        sb.append(" WHERE id = ?");
+        return t;
+    }
 
-        try (Connection connection = ConnectionFactory.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sb.toString())) {
+    /**
+     * Updates a row from an object that was not loaded in the current unit of work, such as one built
+     * from the fields of a form. With dirty tracking, inside a {@link UnitOfWork}, the current row is read
+     * first, bypassing the entity cache, and only the columns that differ from it are written.
+     * Otherwise every column is written, as by {@link #update(Object)}.
+     *
+     * @param t the object holding the new column values and the ID of the row
+     * @return the updated object, or null if no row has its ID
+     */
+    public T merge(T t) {
+        EntityContext context = dirtyTracking ? EntityContext.current() : null;
+        if (context == null) {
+            return update(t);
+        }
+        T current = loadById(metadata.getId(t));
+        if (current == null) {
+            return null;
+        }
+        context.remember(t, metadata.snapshot(current));
+        return update(t);
+    }
 
-            for (int i = 1; i < fields.length; i++) {
-                fields[i].setAccessible(true);
-                statement.setObject(i, fields[i].get(t));
+    /**
+     * Updates only the columns of an object that differ from its remembered state.
+     * No statement is sent when nothing changed. The SQL for each set of changed columns is built once per type.
+     *
+     * @param t      the object to update
+     * @param before the column values last seen in the database
+     * @return the updated object
+     */
+    private T updateChanged(T t, Object[] before) {
+        Object[] after = metadata.snapshot(t);
+        long changed = 0;
+        for (int i = 1; i < after.length; i++) {
+            if (!Objects.equals(before[i], after[i])) {
+                changed |= 1L << i;
             }
+        }
+        if (changed == 0) {
+            return t;
+        }
 
-            Field idField = fields[0];
-            idField.setAccessible(true);
-            statement.setObject(fields.length, idField.get(t));
+        long columns = changed;
+        String query = metadata.query("update:" + columns, () -> createPartialUpdateQuery(columns));
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
 
+            int parameter = 1;
+            for (int i = 1; i < after.length; i++) {
+                if ((changed & (1L << i)) != 0) {
+                    metadata.bind(statement, parameter++, t, i);
+                }
+            }
+            metadata.bind(statement, parameter, t, 0);
             statement.executeUpdate();
-        } catch (SQLException | IllegalAccessException e) {
+            touch();
+            invalidateCached(metadata.getId(t));
+            remember(t);
+        } catch (SQLException e) {
             LOGGER.log(Level.WARNING, "Update failed: " + e.getMessage(), e);
+            UnitOfWork.markRollbackOnly();
         }
         return t;
     }
 
+    /**
+     * Builds an SQL UPDATE query string that only sets the columns flagged in the given bit mask.
+     *
+     * @param changed the bit mask of changed columns, bit i standing for column i
+     * @return the UPDATE SQL query
+     */
+    private String createPartialUpdateQuery(long changed) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("UPDATE `").append(metadata.getTableName()).append("` SET ");
+        boolean first = true;
+        for (int i = 1; i < metadata.getColumnCount(); i++) {
+            if ((changed & (1L << i)) != 0) {
+                if (!first) sb.append(", ");
+                sb.append(metadata.getColumnName(i)).append(" = ?");
+                first = false;
+            }
+        }
+        sb.append(" WHERE id = ?");
+        return sb.toString();
+    }
+
+    /**
+     * Creates an SQL DELETE query string for the type T based on the ID.
+     *
+     * @return the DELETE SQL query
+     */
+    private String createDeleteQuery() {
+        return metadata.query("delete", this::buildDeleteQuery);
+    }
+
+    private String buildDeleteQuery() {
+        return "DELETE FROM `" + metadata.getTableName() + "` WHERE id = ?";
+    }
+
     /**
      * Deletes an object from the database based on its ID.
      *
      * @param id the ID of the object to delete
      */
     public void delete(int id) {
-        String query = "DELETE FROM `" + type.getSimpleName() + "` WHERE id = ?";
+        String query = createDeleteQuery();
         try (Connection connection = ConnectionFactory.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setInt(1, id);
             statement.executeUpdate();
+            touch();
+            invalidateCached(id);
+            forgetSnapshot(id);
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, "Delete failed: " + e.getMessage(), e);
+            UnitOfWork.markRollbackOnly();
+        }
+    }
+
+    /**
+     * Inserts many objects of type T using JDBC batching on one connection and in one transaction.
+     * Statements are sent in chunks of the configured batch size and, with batch rewriting enabled
+     * on the connection, each chunk reaches MySQL as a single multi-row INSERT.
+     * The generated IDs are set on the objects and returned in input order.
+     *
+     * @param entities the objects to insert
+     * @return the generated IDs, in the iteration order of {@code entities}
+     * @throws IllegalStateException if the batch failed and was rolled back
+     */
+    public int[] insertAll(Collection<T> entities) {
+        int[] ids = new int[entities.size()];
+        if (entities.isEmpty()) {
+            return ids;
+        }
+        String query = createInsertQuery();
+        UnitOfWork.run(() -> {
+            try (Connection connection = ConnectionFactory.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+
+                List<T> chunk = new ArrayList<>(Math.min(batchSize, entities.size()));
+                int flushed = 0;
+                for (T t : entities) {
+                    for (int i = 1; i < metadata.getColumnCount(); i++) {
+                        metadata.bind(statement, i, t, i);
+                    }
+                    statement.addBatch();
+                    chunk.add(t);
+                    if (chunk.size() == batchSize) {
+                        flushed = flushInsertBatch(statement, chunk, ids, flushed);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    flushInsertBatch(statement, chunk, ids, flushed);
+                }
+                touch();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Batch insert failed: " + e.getMessage(), e);
+                UnitOfWork.markRollbackOnly();
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Executes one chunk of a batched insert and collects its generated keys.
+     *
+     * @return the number of objects inserted so far
+     */
+    private int flushInsertBatch(PreparedStatement statement, List<T> chunk, int[] ids, int offset)
+            throws SQLException {
+        statement.executeBatch();
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            int i = 0;
+            while (keys.next() && i < chunk.size()) {
+                int id = keys.getInt(1);
+                ids[offset + i] = id;
+                metadata.setId(chunk.get(i), id);
+                i++;
+            }
+        }
+        int inserted = offset + chunk.size();
+        chunk.clear();
+        return inserted;
+    }
+
+    /**
+     * Updates many objects of type T using JDBC batching on one connection and in one transaction.
+     *
+     * @param entities the objects to update
+     * @throws IllegalStateException if the batch failed and was rolled back
+     */
+    public void updateAll(Collection<T> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        String query = createUpdateQuery();
+        UnitOfWork.run(() -> {
+            try (Connection connection = ConnectionFactory.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+
+                int pending = 0;
+                for (T t : entities) {
+                    bindUpdate(statement, t);
+                    statement.addBatch();
+                    invalidateCached(metadata.getId(t));
+                    remember(t);
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+                touch();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Batch update failed: " + e.getMessage(), e);
+                UnitOfWork.markRollbackOnly();
+            }
+        });
+    }
+
+    /**
+     * Deletes many objects of type T by ID using JDBC batching on one connection and in one transaction.
+     *
+     * @param ids the IDs of the objects to delete
+     * @throws IllegalStateException if the batch failed and was rolled back
+     */
+    public void deleteAll(int[] ids) {
+        if (ids.length == 0) {
+            return;
+        }
+        String query = createDeleteQuery();
+        UnitOfWork.run(() -> {
+            try (Connection connection = ConnectionFactory.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+
+                int pending = 0;
+                for (int id : ids) {
+                    statement.setInt(1, id);
+                    statement.addBatch();
+                    invalidateCached(id);
+                    forgetSnapshot(id);
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+                touch();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Batch delete failed: " + e.getMessage(), e);
+                UnitOfWork.markRollbackOnly();
+            }
+        });
+    }
+
+    /**
+     * Sets how many statements are sent to the database per batch by the bulk operations.
+     *
+     * @param batchSize the chunk size, at least 1
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
         }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates a table model over a list of objects of type T that reads cells straight from the objects
+     * and accepts row-level changes, sorted like {@link #findPage(String, boolean, Object, int)}.
+     *
+     * @param listOfT     the objects to show, in display order
+     * @param orderColumn the column the rows are sorted by
+     * @param descending  whether the rows are sorted in descending order
+     * @return an EntityTableModel showing the objects
+     */
+    public EntityTableModel<T> createTableModel(List<T> listOfT, String orderColumn, boolean descending) {
+        EntityTableModel<T> model = new EntityTableModel<>(metadata, orderColumn, descending);
+        model.setRows(listOfT);
+        return model;
     }
 
     /**
@@ -238,22 +1032,26 @@ public class AbstractDAO<T> {
      */
     public DefaultTableModel createTable(List<T> listOfT) {
         DefaultTableModel model = new DefaultTableModel();
-        for (Field field : type.getDeclaredFields()) {
-            model.addColumn(field.getName());
+        int columns = metadata.getColumnCount();
+        for (int i = 0; i < columns; i++) {
+            model.addColumn(metadata.getColumnName(i));
         }
         for (T t : listOfT) {
-            Object[] row = new Object[type.getDeclaredFields().length];
-            int i = 0;
-            for (Field field : type.getDeclaredFields()) {
-                field.setAccessible(true);
-                try {
-                    row[i++] = field.get(t);
-                } catch (IllegalAccessException e) {
-                    LOGGER.log(Level.WARNING, "Reflection error reading field: " + field.getName(), e);
-                }
+            Object[] row = new Object[columns];
+            for (int i = 0; i < columns; i++) {
+                row[i] = metadata.get(t, i);
             }
             model.addRow(row);
         }
         return model;
     }
+
+    /**
+     * Returns the compiled metadata describing the type handled by this DAO.
+     *
+     * @return the entity metadata
+     */
+    public EntityMetadata<T> getMetadata() {
+        return metadata;
+    }
 }
@@ -0,0 +1,97 @@
+package org.example.DataAccess;
+
+import org.example.Model.Bill;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Access Object for the Bill record, stored in the "Log" table.
+ * Bills are keyed by their order ID, so logging the same bill twice leaves a single row.
+ */
+public class BillDAO extends RecordDAO<Bill> {
+
+    private static final String SINCE = " WHERE orderId > ? ORDER BY orderId LIMIT ?";
+    private static final String BETWEEN = " WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp, orderId LIMIT ?";
+    private static final String BETWEEN_AFTER =
+            " WHERE (timestamp, orderId) > (?, ?) AND timestamp < ? ORDER BY timestamp, orderId LIMIT ?";
+    private static final String BY_CLIENT = " WHERE clientId = ? AND orderId > ? ORDER BY orderId LIMIT ?";
+    private static final String BY_PRODUCT = " WHERE productId = ? AND orderId > ? ORDER BY orderId LIMIT ?";
+
+    public BillDAO() {
+        super("Log");
+        ignoreDuplicates("orderId");
+    }
+
+    /**
+     * Retrieves the bills with an order ID greater than the last one seen, in order ID order.
+     *
+     * @param lastOrderId the highest order ID already seen, or 0 to start from the first bill
+     * @param limit       the maximum number of bills to return
+     * @return the newer bills
+     */
+    public List<Bill> findSince(int lastOrderId, int limit) {
+        return find(SINCE, statement -> {
+            statement.setInt(1, lastOrderId);
+            statement.setInt(2, limit);
+        });
+    }
+
+    /**
+     * Retrieves one page of the bills issued in a time range, ordered by timestamp and then order ID.
+     *
+     * @param from  the start of the range, inclusive
+     * @param to    the end of the range, exclusive
+     * @param after the last bill of the previous page, or null for the first page
+     * @param limit the maximum number of bills to return
+     * @return the bills of the page
+     */
+    public List<Bill> findBetween(LocalDateTime from, LocalDateTime to, Bill after, int limit) {
+        if (after == null) {
+            return find(BETWEEN, statement -> {
+                statement.setTimestamp(1, Timestamp.valueOf(from));
+                statement.setTimestamp(2, Timestamp.valueOf(to));
+                statement.setInt(3, limit);
+            });
+        }
+        return find(BETWEEN_AFTER, statement -> {
+            statement.setTimestamp(1, Timestamp.valueOf(after.timestamp()));
+            statement.setInt(2, after.orderId());
+            statement.setTimestamp(3, Timestamp.valueOf(to));
+            statement.setInt(4, limit);
+        });
+    }
+
+    /**
+     * Retrieves one page of the bills of a client, in order ID order.
+     *
+     * @param clientId the ID of the client
+     * @param after    the last bill of the previous page, or null for the first page
+     * @param limit    the maximum number of bills to return
+     * @return the bills of the page
+     */
+    public List<Bill> findByClient(int clientId, Bill after, int limit) {
+        return find(BY_CLIENT, statement -> {
+            statement.setInt(1, clientId);
+            statement.setInt(2, after == null ? 0 : after.orderId());
+            statement.setInt(3, limit);
+        });
+    }
+
+    /**
+     * Retrieves one page of the bills of a product, in order ID order.
+     *
+     * @param productId the ID of the product
+     * @param after     the last bill of the previous page, or null for the first page
+     * @param limit     the maximum number of bills to return
+     * @return the bills of the page
+     */
+    public List<Bill> findByProduct(int productId, Bill after, int limit) {
+        return find(BY_PRODUCT, statement -> {
+            statement.setInt(1, productId);
+            statement.setInt(2, after == null ? 0 : after.orderId());
+            statement.setInt(3, limit);
+        });
+    }
+}
@@ -6,4 +6,18 @@ import org.example.Model.Client;
  * Inherits basic CRUD operations from AbstractDAO.
  */
 public class ClientDAO extends AbstractDAO<Client> {
+    private static final int CACHE_SIZE = 5_000;
+    private static final long CACHE_TTL_MS = 5 * 60_000;
+    private static final int QUERY_CACHE_SIZE = 64;
+
+    /**
+     * Creates the DAO with a read-through cache for client lookups
+     * with dirty tracking so that updates only write the edited columns,
+     * and with a query cache so that reopening a window does not read unchanged pages again.
+     */
+    public ClientDAO() {
+        enableCache(CACHE_SIZE, CACHE_TTL_MS);
+        enableDirtyTracking();
+        enableQueryCache(QUERY_CACHE_SIZE, CACHE_TTL_MS);
+    }
 }
@@ -0,0 +1,199 @@
+package org.example.DataAccess;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Describes a query on one entity type: conditions on columns, ordering and a row limit.
+ * Conditions are combined with AND. The criteria only reference column names and values,
+ * the DAO turns them into prepared SQL and checks the column names against the entity metadata.
+ * <p>
+ * Example: {@code Criteria.where().gt("quantity", 0).orderBy("id", false).limit(200)}
+ */
+public final class Criteria {
+
+    private final List<Condition> conditions = new ArrayList<>();
+    private final List<String> orderColumns = new ArrayList<>();
+    private final List<Boolean> orderDescending = new ArrayList<>();
+    private int limit = -1;
+
+    private Criteria() {
+    }
+
+    /**
+     * Starts a new, empty set of criteria, matching every row.
+     *
+     * @return the new criteria
+     */
+    public static Criteria where() {
+        return new Criteria();
+    }
+
+    public Criteria eq(String column, Object value) {
+        return add(column, " = ?", value);
+    }
+
+    public Criteria ne(String column, Object value) {
+        return add(column, " <> ?", value);
+    }
+
+    public Criteria gt(String column, Object value) {
+        return add(column, " > ?", value);
+    }
+
+    public Criteria ge(String column, Object value) {
+        return add(column, " >= ?", value);
+    }
+
+    public Criteria lt(String column, Object value) {
+        return add(column, " < ?", value);
+    }
+
+    public Criteria le(String column, Object value) {
+        return add(column, " <= ?", value);
+    }
+
+    /**
+     * Matches rows whose column lies between two values, both inclusive.
+     *
+     * @param column the column name
+     * @param from   the lower bound
+     * @param to     the upper bound
+     * @return these criteria
+     */
+    public Criteria between(String column, Object from, Object to) {
+        conditions.add(new Condition(column, " BETWEEN ? AND ?", new Object[]{from, to}));
+        return this;
+    }
+
+    /**
+     * Matches rows whose column equals one of the given values.
+     * An empty collection matches no row.
+     *
+     * @param column the column name
+     * @param values the accepted values
+     * @return these criteria
+     */
+    public Criteria in(String column, Collection<?> values) {
+        if (values.isEmpty()) {
+            conditions.add(new Condition(column, " IN (NULL)", new Object[0]));
+            return this;
+        }
+        StringBuilder sb = new StringBuilder(" IN (");
+        for (int i = 0; i < values.size(); i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        sb.append(')');
+        conditions.add(new Condition(column, sb.toString(), values.toArray()));
+        return this;
+    }
+
+    /**
+     * Adds an ORDER BY column. Columns are applied in the order they are added.
+     *
+     * @param column     the column name
+     * @param descending whether to sort this column in descending order
+     * @return these criteria
+     */
+    public Criteria orderBy(String column, boolean descending) {
+        orderColumns.add(column);
+        orderDescending.add(descending);
+        return this;
+    }
+
+    /**
+     * Limits the number of rows returned.
+     *
+     * @param limit the maximum number of rows
+     * @return these criteria
+     */
+    public Criteria limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    private Criteria add(String column, String operator, Object value) {
+        conditions.add(new Condition(column, operator, new Object[]{value}));
+        return this;
+    }
+
+    /**
+     * Returns the WHERE, ORDER BY and LIMIT part of the SQL, with placeholders for every value.
+     * Criteria of the same shape always produce the same text, so the text also serves as the key
+     * under which the DAO caches the generated statement, and the prepared statement can be reused
+     * by the driver and the server whatever the values are. Column names are not checked here.
+     *
+     * @return the SQL suffix, starting with a space when not empty
+     */
+    String shape() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < conditions.size(); i++) {
+            Condition condition = conditions.get(i);
+            sb.append(i == 0 ? " WHERE " : " AND ").append(condition.column).append(condition.operator);
+        }
+        for (int i = 0; i < orderColumns.size(); i++) {
+            sb.append(i == 0 ? " ORDER BY " : ", ").append(orderColumns.get(i))
+                    .append(orderDescending.get(i) ? " DESC" : " ASC");
+        }
+        if (limit >= 0) {
+            sb.append(" LIMIT ?");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks every column against the entity metadata and returns the {@link #shape() SQL suffix}.
+     *
+     * @param metadata the metadata used to check column names
+     * @return the SQL suffix, starting with a space when not empty
+     * @throws IllegalArgumentException if a column is not part of the entity
+     */
+    String toSql(EntityMetadata<?> metadata) {
+        for (Condition condition : conditions) {
+            metadata.indexOf(condition.column);
+        }
+        for (String column : orderColumns) {
+            metadata.indexOf(column);
+        }
+        return shape();
+    }
+
+    /**
+     * Binds every condition value, and the limit, in the order of {@link #toSql(EntityMetadata)}.
+     *
+     * @param statement the statement to bind
+     * @throws SQLException if a parameter cannot be set
+     */
+    void bind(PreparedStatement statement) throws SQLException {
+        int parameter = 1;
+        for (Condition condition : conditions) {
+            for (Object value : condition.values) {
+                statement.setObject(parameter++, value);
+            }
+        }
+        if (limit >= 0) {
+            statement.setInt(parameter, limit);
+        }
+    }
+
+    /**
+     * One column condition with its SQL operator and the values bound to its placeholders.
+     */
+    private static final class Condition {
+        private final String column;
+        private final String operator;
+        private final Object[] values;
+
+        private Condition(String column, String operator, Object[] values) {
+            this.column = column;
+            this.operator = operator;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.example.DataAccess;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache keyed by primitive int IDs, used by the DAOs as a read-through cache.
+ * Entries are evicted in least-recently-used order once the cache is full,
+ * and are dropped when they are older than the configured time to live.
+ * Hit, miss and eviction counters are kept for monitoring.
+ *
+ * @param <V> the type of the cached values
+ */
+public class EntityCache<V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Node<V>[] buckets;
+    private final int mask;
+    private Node<V> head;
+    private Node<V> tail;
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code maxSize} entries, each for at most {@code ttlMillis}.
+     *
+     * @param maxSize   the maximum number of entries
+     * @param ttlMillis the time to live of an entry in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public EntityCache(int maxSize, long ttlMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        int capacity = Integer.highestOneBit(Math.max(2, maxSize * 4 / 3) - 1) << 1;
+        this.buckets = (Node<V>[]) new Node<?>[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the cached value for an ID and marks it as recently used.
+     *
+     * @param key the ID
+     * @return the cached value, or null on a miss or if the entry expired
+     */
+    public synchronized V get(int key) {
+        Node<V> node = find(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - node.expiresAt > 0) {
+            remove(node);
+            evictions.increment();
+            misses.increment();
+            return null;
+        }
+        moveToFront(node);
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * Stores a value for an ID, evicting the least recently used entry if the cache is full.
+     *
+     * @param key   the ID
+     * @param value the value to cache
+     */
+    public synchronized void put(int key, V value) {
+        long expiresAt = System.nanoTime() + ttlNanos;
+        Node<V> node = find(key);
+        if (node != null) {
+            node.value = value;
+            node.expiresAt = expiresAt;
+            moveToFront(node);
+            return;
+        }
+        if (size == maxSize) {
+            remove(tail);
+            evictions.increment();
+        }
+        node = new Node<>(key, value, expiresAt);
+        int bucket = key & mask;
+        node.next = buckets[bucket];
+        buckets[bucket] = node;
+        linkFirst(node);
+        size++;
+    }
+
+    /**
+     * Removes the entry for an ID, if any.
+     *
+     * @param key the ID
+     */
+    public synchronized void invalidate(int key) {
+        Node<V> node = find(key);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void clear() {
+        Arrays.fill(buckets, null);
+        head = null;
+        tail = null;
+        size = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private Node<V> find(int key) {
+        Node<V> node = buckets[key & mask];
+        while (node != null && node.key != key) {
+            node = node.next;
+        }
+        return node;
+    }
+
+    private void remove(Node<V> node) {
+        int bucket = node.key & mask;
+        Node<V> current = buckets[bucket];
+        Node<V> previous = null;
+        while (current != node) {
+            previous = current;
+            current = current.next;
+        }
+        if (previous == null) {
+            buckets[bucket] = node.next;
+        } else {
+            previous.next = node.next;
+        }
+        unlink(node);
+        size--;
+    }
+
+    private void moveToFront(Node<V> node) {
+        if (node != head) {
+            unlink(node);
+            linkFirst(node);
+        }
+    }
+
+    private void linkFirst(Node<V> node) {
+        node.before = null;
+        node.after = head;
+        if (head != null) {
+            head.before = node;
+        }
+        head = node;
+        if (tail == null) {
+            tail = node;
+        }
+    }
+
+    private void unlink(Node<V> node) {
+        if (node.before == null) {
+            head = node.after;
+        } else {
+            node.before.after = node.after;
+        }
+        if (node.after == null) {
+            tail = node.before;
+        } else {
+            node.after.before = node.before;
+        }
+        node.before = null;
+        node.after = null;
+    }
+
+    /**
+     * Entry chained both in its hash bucket and in the recency list.
+     */
+    private static final class Node<V> {
+        private final int key;
+        private V value;
+        private long expiresAt;
+        private Node<V> next;
+        private Node<V> before;
+        private Node<V> after;
+
+        private Node(int key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
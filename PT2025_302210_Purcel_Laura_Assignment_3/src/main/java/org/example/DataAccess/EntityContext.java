@@ -0,0 +1,80 @@
+package org.example.DataAccess;
+
+import org.example.Connection.UnitOfWork;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Identity map scoped to one business operation, that is to one {@link UnitOfWork}.
+ * Rows loaded by ID during the operation are kept here, so that a validator, a BLL and a DAO
+ * asking for the same row get the same object and the row is read only once.
+ * Writes through a DAO drop the written row, and the whole map is discarded when the unit of work ends.
+ * <p>
+ * The context also holds the dirty tracking snapshots of the operation: the column values each loaded
+ * object was read with, keyed by the object itself, so that a later read of the same row cannot
+ * replace the state an object is compared against when it is updated.
+ */
+final class EntityContext {
+
+    private final Map<Class<?>, Map<Integer, Object>> entities = new HashMap<>();
+    private final Map<Object, Object[]> snapshots = new IdentityHashMap<>();
+
+    private EntityContext() {
+    }
+
+    /**
+     * Returns the context of the unit of work active on this thread.
+     *
+     * @return the context, or null outside a unit of work
+     */
+    static EntityContext current() {
+        return UnitOfWork.resource(EntityContext.class, EntityContext::new);
+    }
+
+    <T> T get(Class<T> type, int id) {
+        Map<Integer, Object> byId = entities.get(type);
+        return byId == null ? null : type.cast(byId.get(id));
+    }
+
+    <T> void put(Class<T> type, int id, T t) {
+        entities.computeIfAbsent(type, k -> new HashMap<>()).put(id, t);
+    }
+
+    void remove(Class<?> type, int id) {
+        Map<Integer, Object> byId = entities.get(type);
+        if (byId != null) {
+            byId.remove(id);
+        }
+    }
+
+    /**
+     * Remembers the column values an object was loaded or last written with.
+     *
+     * @param t      the object
+     * @param values its column values, the ID first
+     */
+    void remember(Object t, Object[] values) {
+        snapshots.put(t, values);
+    }
+
+    /**
+     * Returns the column values an object was loaded or last written with.
+     *
+     * @param t the object
+     * @return the remembered values, or null if the object was not loaded in this unit of work
+     */
+    Object[] snapshot(Object t) {
+        return snapshots.get(t);
+    }
+
+    /**
+     * Forgets the snapshots of every object of a row, for example after the row was changed
+     * behind the tracked columns.
+     */
+    void forget(Class<?> type, int id) {
+        snapshots.entrySet().removeIf(entry -> type.isInstance(entry.getKey())
+                && entry.getValue()[0] instanceof Integer rowId && rowId == id);
+    }
+}
@@ -0,0 +1,582 @@
+package org.example.DataAccess;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Compiled description of an entity class used by the DAO layer.
+ * Fields are scanned once per class and turned into method handle based column accessors,
+ * so that mapping a row or binding a statement does not go through reflection.
+ * The first declared field is treated as the primary key column.
+ *
+ * @param <T> the entity type described by this metadata
+ */
+public final class EntityMetadata<T> {
+
+    private static final ClassValue<EntityMetadata<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected EntityMetadata<?> computeValue(Class<?> type) {
+            return new EntityMetadata<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final String tableName;
+    private final Column[] columns;
+    private final String columnList;
+    private final MethodHandle constructor;
+    private final Map<String, String> queries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the compiled metadata for the given entity class, building it on first use.
+     *
+     * @param type the entity class
+     * @param <T>  the entity type
+     * @return the metadata shared by every DAO of that type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMetadata<T> of(Class<T> type) {
+        return (EntityMetadata<T>) CACHE.get(type);
+    }
+
+    private EntityMetadata(Class<T> type) {
+        this.type = type;
+        this.tableName = type.getSimpleName();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+
+            List<Column> compiled = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                compiled.add(compile(lookup, field));
+            }
+            this.columns = compiled.toArray(new Column[0]);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot compile entity metadata for " + type.getName(), e);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            sb.append(columns[i].name);
+            if (i < columns.length - 1) sb.append(", ");
+        }
+        this.columnList = sb.toString();
+    }
+
+    /**
+     * Builds the accessor for a single field, choosing a primitive specialised column when possible.
+     */
+    private static Column compile(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+        MethodHandle getter = lookup.unreflectGetter(field);
+        MethodHandle setter = lookup.unreflectSetter(field);
+        Class<?> fieldType = field.getType();
+        if (fieldType == int.class) {
+            return new IntColumn(field.getName(), getter, setter);
+        }
+        if (fieldType == long.class) {
+            return new LongColumn(field.getName(), getter, setter);
+        }
+        if (fieldType == double.class) {
+            return new DoubleColumn(field.getName(), getter, setter);
+        }
+        if (fieldType == boolean.class) {
+            return new BooleanColumn(field.getName(), getter, setter);
+        }
+        if (fieldType == String.class) {
+            return new StringColumn(field.getName(), getter, setter);
+        }
+        return new ObjectColumn(field.getName(), fieldType, getter, setter);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public String getColumnName(int column) {
+        return columns[column].name;
+    }
+
+    /**
+     * Returns the index of the column with the given name.
+     *
+     * @param name the column name
+     * @return the column index, 0 being the id
+     * @throws IllegalArgumentException if the entity has no such column
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].name.equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(tableName + " has no column named " + name);
+    }
+
+    /**
+     * Returns the Java type of the given column, boxed for primitives.
+     *
+     * @param column the column index, 0 being the id
+     * @return the column class
+     */
+    public Class<?> getColumnClass(int column) {
+        return columns[column].javaType;
+    }
+
+    /**
+     * Returns the comma separated list of all columns, in field declaration order.
+     *
+     * @return the column list used in generated SELECT statements
+     */
+    public String getColumnList() {
+        return columnList;
+    }
+
+    /**
+     * Returns the SQL text stored under a key, generating it on first use.
+     * Every DAO of the entity type shares these statements, so SQL is built once per type and shape.
+     *
+     * @param key     the name of the statement, including anything that changes its shape
+     * @param builder generates the SQL text when it is not cached yet
+     * @return the cached SQL text
+     */
+    public String query(String key, Supplier<String> builder) {
+        String sql = queries.get(key);
+        if (sql == null) {
+            sql = queries.computeIfAbsent(key, k -> builder.get());
+        }
+        return sql;
+    }
+
+    /**
+     * Creates a new, empty instance through the no-arg constructor.
+     *
+     * @return the new instance
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance() {
+        try {
+            return (T) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot instantiate " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Maps the current row of a ResultSet whose columns were selected with {@link #getColumnList()}.
+     * Columns are bound by index, starting at 1.
+     *
+     * @param resultSet the ResultSet positioned on the row to map
+     * @return the populated instance
+     * @throws SQLException if a column cannot be read
+     */
+    public T read(ResultSet resultSet) throws SQLException {
+        T instance = newInstance();
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].read(resultSet, i + 1, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Maps the current row of a ResultSet that selected only some of the columns, in the given order.
+     * The other fields keep their default values.
+     *
+     * @param resultSet the ResultSet positioned on the row to map
+     * @param selected  the indexes of the selected columns, in SELECT order
+     * @return the partially populated instance
+     * @throws SQLException if a column cannot be read
+     */
+    public T read(ResultSet resultSet, int[] selected) throws SQLException {
+        T instance = newInstance();
+        for (int i = 0; i < selected.length; i++) {
+            columns[selected[i]].read(resultSet, i + 1, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Binds one column value of an entity to a statement parameter.
+     *
+     * @param statement      the statement to bind
+     * @param parameterIndex the 1-based parameter index
+     * @param t              the entity to read from
+     * @param column         the column index, 0 being the id
+     * @throws SQLException if the parameter cannot be set
+     */
+    public void bind(PreparedStatement statement, int parameterIndex, T t, int column) throws SQLException {
+        columns[column].bind(statement, parameterIndex, t);
+    }
+
+    /**
+     * Returns the boxed value of a column, as displayed in table models.
+     *
+     * @param t      the entity to read from
+     * @param column the column index, 0 being the id
+     * @return the column value
+     */
+    public Object get(T t, int column) {
+        return columns[column].get(t);
+    }
+
+    /**
+     * Creates a shallow copy of an entity, column by column.
+     *
+     * @param t the entity to copy
+     * @return a new instance with the same column values
+     */
+    public T copy(T t) {
+        T copy = newInstance();
+        for (Column column : columns) {
+            column.set(copy, column.get(t));
+        }
+        return copy;
+    }
+
+    /**
+     * Captures the current value of every column of an entity.
+     *
+     * @param t the entity to read from
+     * @return the column values, indexed like the columns
+     */
+    public Object[] snapshot(T t) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i].get(t);
+        }
+        return values;
+    }
+
+    public int getId(T t) {
+        return ((Number) columns[0].get(t)).intValue();
+    }
+
+    public void setId(T t, int id) {
+        columns[0].set(t, id);
+    }
+
+    /**
+     * Accessor for one mapped field.
+     */
+    private abstract static class Column {
+        final String name;
+        final Class<?> javaType;
+
+        Column(String name, Class<?> javaType) {
+            this.name = name;
+            this.javaType = javaType;
+        }
+
+        abstract void read(ResultSet resultSet, int index, Object target) throws SQLException;
+
+        abstract void bind(PreparedStatement statement, int index, Object source) throws SQLException;
+
+        abstract Object get(Object source);
+
+        abstract void set(Object target, Object value);
+
+        IllegalStateException failure(Throwable e) {
+            return new IllegalStateException("Cannot access column " + name, e);
+        }
+    }
+
+    private static final class IntColumn extends Column {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        IntColumn(String name, MethodHandle getter, MethodHandle setter) {
+            super(name, Integer.class);
+            this.getter = getter.asType(MethodType.methodType(int.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, int.class));
+        }
+
+        int getInt(Object source) {
+            try {
+                return (int) getter.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        void setInt(Object target, int value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        void read(ResultSet resultSet, int index, Object target) throws SQLException {
+            setInt(target, resultSet.getInt(index));
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            statement.setInt(index, getInt(source));
+        }
+
+        @Override
+        Object get(Object source) {
+            return getInt(source);
+        }
+
+        @Override
+        void set(Object target, Object value) {
+            setInt(target, ((Number) value).intValue());
+        }
+    }
+
+    private static final class LongColumn extends Column {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        LongColumn(String name, MethodHandle getter, MethodHandle setter) {
+            super(name, Long.class);
+            this.getter = getter.asType(MethodType.methodType(long.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+        }
+
+        long getLong(Object source) {
+            try {
+                return (long) getter.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        void setLong(Object target, long value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        void read(ResultSet resultSet, int index, Object target) throws SQLException {
+            setLong(target, resultSet.getLong(index));
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            statement.setLong(index, getLong(source));
+        }
+
+        @Override
+        Object get(Object source) {
+            return getLong(source);
+        }
+
+        @Override
+        void set(Object target, Object value) {
+            setLong(target, ((Number) value).longValue());
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        DoubleColumn(String name, MethodHandle getter, MethodHandle setter) {
+            super(name, Double.class);
+            this.getter = getter.asType(MethodType.methodType(double.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+        }
+
+        double getDouble(Object source) {
+            try {
+                return (double) getter.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        void setDouble(Object target, double value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        void read(ResultSet resultSet, int index, Object target) throws SQLException {
+            setDouble(target, resultSet.getDouble(index));
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            statement.setDouble(index, getDouble(source));
+        }
+
+        @Override
+        Object get(Object source) {
+            return getDouble(source);
+        }
+
+        @Override
+        void set(Object target, Object value) {
+            setDouble(target, ((Number) value).doubleValue());
+        }
+    }
+
+    private static final class BooleanColumn extends Column {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        BooleanColumn(String name, MethodHandle getter, MethodHandle setter) {
+            super(name, Boolean.class);
+            this.getter = getter.asType(MethodType.methodType(boolean.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+        }
+
+        boolean getBoolean(Object source) {
+            try {
+                return (boolean) getter.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        void setBoolean(Object target, boolean value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        void read(ResultSet resultSet, int index, Object target) throws SQLException {
+            setBoolean(target, resultSet.getBoolean(index));
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            statement.setBoolean(index, getBoolean(source));
+        }
+
+        @Override
+        Object get(Object source) {
+            return getBoolean(source);
+        }
+
+        @Override
+        void set(Object target, Object value) {
+            setBoolean(target, (Boolean) value);
+        }
+    }
+
+    private static final class StringColumn extends Column {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        StringColumn(String name, MethodHandle getter, MethodHandle setter) {
+            super(name, String.class);
+            this.getter = getter.asType(MethodType.methodType(String.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, String.class));
+        }
+
+        String getString(Object source) {
+            try {
+                return (String) getter.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        void setString(Object target, String value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        void read(ResultSet resultSet, int index, Object target) throws SQLException {
+            setString(target, resultSet.getString(index));
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            statement.setString(index, getString(source));
+        }
+
+        @Override
+        Object get(Object source) {
+            return getString(source);
+        }
+
+        @Override
+        void set(Object target, Object value) {
+            setString(target, (String) value);
+        }
+    }
+
+    /**
+     * Fallback accessor for reference types such as {@link LocalDateTime}.
+     */
+    private static final class ObjectColumn extends Column {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        ObjectColumn(String name, Class<?> javaType, MethodHandle getter, MethodHandle setter) {
+            super(name, javaType);
+            this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+
+        @Override
+        void read(ResultSet resultSet, int index, Object target) throws SQLException {
+            set(target, resultSet.getObject(index, javaType));
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            statement.setObject(index, get(source));
+        }
+
+        @Override
+        Object get(Object source) {
+            try {
+                return (Object) getter.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        void set(Object target, Object value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+    }
+}
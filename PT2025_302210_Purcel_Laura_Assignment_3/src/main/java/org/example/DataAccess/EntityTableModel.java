@@ -0,0 +1,186 @@
+package org.example.DataAccess;
+
+import org.example.Model.EntityChange;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Table model over a list of entities kept in the order the DAO pages them in.
+ * Cell values are read from the entities through the compiled accessors of {@link EntityMetadata}.
+ * Writes are applied as {@link EntityChange} deltas that touch only the changed row and fire the matching
+ * row event, so the JTable keeps its selection and scroll position instead of being reloaded.
+ * The model must only be used on the Event Dispatch Thread.
+ *
+ * @param <T> the entity type shown by this model
+ */
+public class EntityTableModel<T> extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final EntityMetadata<T> metadata;
+    private final Comparator<T> order;
+    private final List<T> rows = new ArrayList<>();
+
+    /**
+     * Creates an empty model sorted like {@link AbstractDAO#findPage(String, boolean, Object, int)}:
+     * by the given column, then by ID.
+     *
+     * @param metadata    the metadata of the entity type
+     * @param orderColumn the column the rows are sorted by
+     * @param descending  whether the rows are sorted in descending order
+     * @throws IllegalArgumentException if {@code orderColumn} is not a column of T
+     */
+    public EntityTableModel(EntityMetadata<T> metadata, String orderColumn, boolean descending) {
+        this.metadata = metadata;
+        int column = metadata.indexOf(orderColumn);
+        Comparator<T> ascending = Comparator.<T, Object>comparing(t -> metadata.get(t, column),
+                        Comparator.nullsFirst(EntityTableModel::compareValues))
+                .thenComparingInt(metadata::getId);
+        this.order = descending ? ascending.reversed() : ascending;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object a, Object b) {
+        if (a instanceof String && b instanceof String) {
+            return String.CASE_INSENSITIVE_ORDER.compare((String) a, (String) b);
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    /**
+     * Replaces every row, for example with the first page after a refresh.
+     *
+     * @param entities the new rows, in display order
+     */
+    public void setRows(List<T> entities) {
+        rows.clear();
+        rows.addAll(entities);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Adds a page of rows. Rows already shown, such as a row inserted before its page was loaded, are skipped.
+     *
+     * @param entities the rows to add, in display order
+     */
+    public void addAll(Collection<T> entities) {
+        for (T t : entities) {
+            if (indexOf(metadata.getId(t)) < 0) {
+                insert(t);
+            }
+        }
+    }
+
+    /**
+     * Applies one change: an inserted row is placed where its sort order puts it, an updated row is
+     * replaced, and moved if its sort key changed, and a deleted row is removed.
+     * Changes to rows that are not shown are ignored, except for inserts.
+     *
+     * @param change the change made by a write
+     */
+    public void apply(EntityChange<T> change) {
+        int row = indexOf(change.id());
+        switch (change.kind()) {
+            case INSERTED:
+                if (row < 0) {
+                    insert(change.entity());
+                }
+                break;
+            case UPDATED:
+                if (row < 0) {
+                    break;
+                }
+                if (inOrder(row, change.entity())) {
+                    rows.set(row, change.entity());
+                    fireTableRowsUpdated(row, row);
+                } else {
+                    rows.remove(row);
+                    fireTableRowsDeleted(row, row);
+                    insert(change.entity());
+                }
+                break;
+            case DELETED:
+                if (row >= 0) {
+                    rows.remove(row);
+                    fireTableRowsDeleted(row, row);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Returns the entity shown in a row.
+     *
+     * @param row the row index
+     * @return the entity
+     */
+    public T getRow(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * Returns the row showing the entity with the given ID.
+     *
+     * @param id the ID of the entity
+     * @return the row index, or -1 if the entity is not shown
+     */
+    public int indexOf(int id) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (metadata.getId(rows.get(i)) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return metadata.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return metadata.getColumnName(column);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return metadata.getColumnClass(column);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return metadata.get(rows.get(row), column);
+    }
+
+    private void insert(T t) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (order.compare(rows.get(middle), t) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        rows.add(low, t);
+        fireTableRowsInserted(low, low);
+    }
+
+    private boolean inOrder(int row, T t) {
+        return (row == 0 || order.compare(rows.get(row - 1), t) <= 0)
+                && (row == rows.size() - 1 || order.compare(t, rows.get(row + 1)) <= 0);
+    }
+}
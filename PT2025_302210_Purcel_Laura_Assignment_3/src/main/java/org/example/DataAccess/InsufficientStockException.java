@@ -0,0 +1,29 @@
+package org.example.DataAccess;
+
+import java.util.Set;
+
+/**
+ * Thrown when a stock change would take the stock of some products below zero.
+ * Nothing was written: the whole change was rolled back. Carries the IDs of the products that
+ * had too little stock, so the caller can retry the others.
+ */
+public class InsufficientStockException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Set<Integer> productIds;
+
+    public InsufficientStockException(Set<Integer> productIds) {
+        super("Not enough stock for products " + productIds);
+        this.productIds = Set.copyOf(productIds);
+    }
+
+    /**
+     * Returns the products whose stock was too low.
+     *
+     * @return the product IDs
+     */
+    public Set<Integer> getProductIds() {
+        return productIds;
+    }
+}
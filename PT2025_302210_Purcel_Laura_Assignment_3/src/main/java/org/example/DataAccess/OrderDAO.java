@@ -6,4 +6,14 @@ import org.example.Model.Order;
  * Inherits basic CRUD operations from AbstractDAO.
  */
 public class OrderDAO extends AbstractDAO<Order> {
+    private static final int QUERY_CACHE_SIZE = 32;
+    private static final long QUERY_CACHE_TTL_MS = 60_000;
+
+    /**
+     * Creates the DAO with a query cache, so that reopening the order window does not count
+     * the orders and read their first pages again while no order was placed.
+     */
+    public OrderDAO() {
+        enableQueryCache(QUERY_CACHE_SIZE, QUERY_CACHE_TTL_MS);
+    }
 }
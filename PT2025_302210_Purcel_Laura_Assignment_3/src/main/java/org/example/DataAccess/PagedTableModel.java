@@ -0,0 +1,188 @@
+package org.example.DataAccess;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Table model over a whole table of T that only keeps the pages the JTable is showing.
+ * The row count comes from a COUNT query; rows are read one page at a time in the background as they are
+ * first painted, and the least recently shown pages are dropped once more than {@link #MAX_PAGES} are held,
+ * so memory use does not grow with the size of the table. Cell values are read straight from the entities
+ * through the compiled accessors of {@link EntityMetadata}, without copying them into row arrays.
+ * <p>
+ * A page that follows a cached page is read with a keyset query continuing after its last row;
+ * other pages are read by offset. Rows of a page that is still loading are shown as empty.
+ * The model must only be used on the Event Dispatch Thread.
+ *
+ * @param <T> the entity type shown by this model
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(PagedTableModel.class.getName());
+
+    static final int PAGE_SIZE = 200;
+    static final int MAX_PAGES = 16;
+
+    private final AbstractDAO<T> dao;
+    private final EntityMetadata<T> metadata;
+    private final String orderColumn;
+    private final boolean descending;
+    private final Map<Integer, List<T>> pages = new LinkedHashMap<>(MAX_PAGES * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+    private final Set<Integer> loading = new HashSet<>();
+    private int rowCount;
+    private int generation;
+    private long loadedVersion = -1;
+
+    /**
+     * Creates the model and starts counting the rows in the background.
+     *
+     * @param dao         the DAO reading the rows
+     * @param orderColumn the column the rows are sorted by
+     * @param descending  whether the rows are sorted in descending order
+     * @throws IllegalArgumentException if {@code orderColumn} is not a column of T
+     */
+    public PagedTableModel(AbstractDAO<T> dao, String orderColumn, boolean descending) {
+        this.dao = dao;
+        this.metadata = dao.getMetadata();
+        this.orderColumn = orderColumn;
+        this.descending = descending;
+        metadata.indexOf(orderColumn);
+        refresh();
+    }
+
+    /**
+     * Drops every cached page and counts the rows again, for example after rows were inserted or deleted.
+     * Nothing is reloaded if the table was not written since the rows were last counted.
+     * Pages still loading from before the refresh are discarded when they arrive.
+     */
+    public void refresh() {
+        if (!dao.changedSince(loadedVersion)) {
+            return;
+        }
+        long version = dao.version();
+        int current = ++generation;
+        pages.clear();
+        loading.clear();
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return dao.count();
+            }
+
+            @Override
+            protected void done() {
+                if (current != generation) {
+                    return;
+                }
+                try {
+                    rowCount = get();
+                    loadedVersion = version;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Counting " + metadata.getTableName() + " rows failed", e.getCause());
+                }
+                fireTableDataChanged();
+            }
+        }.execute();
+    }
+
+    /**
+     * Returns the entity shown in a row, if its page is loaded.
+     *
+     * @param row the row index
+     * @return the entity, or null if its page is not loaded yet
+     */
+    public T getRow(int row) {
+        List<T> page = page(row / PAGE_SIZE);
+        int index = row % PAGE_SIZE;
+        return page == null || index >= page.size() ? null : page.get(index);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return metadata.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return metadata.getColumnName(column);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return metadata.getColumnClass(column);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T t = getRow(row);
+        return t == null ? null : metadata.get(t, column);
+    }
+
+    /**
+     * Returns a cached page, starting to load it if it is not cached.
+     */
+    private List<T> page(int number) {
+        List<T> page = pages.get(number);
+        if (page == null && loading.add(number)) {
+            load(number);
+        }
+        return page;
+    }
+
+    private void load(int number) {
+        int current = generation;
+        List<T> previous = pages.get(number - 1);
+        T after = previous == null || previous.size() < PAGE_SIZE ? null : previous.get(PAGE_SIZE - 1);
+        new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() {
+                return after != null
+                        ? dao.findPage(orderColumn, descending, after, PAGE_SIZE)
+                        : dao.findPageAt(orderColumn, descending, number * PAGE_SIZE, PAGE_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (current != generation) {
+                    return;
+                }
+                loading.remove(number);
+                try {
+                    pages.put(number, get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Loading a page of " + metadata.getTableName() + " failed", e.getCause());
+                    return;
+                }
+                int first = number * PAGE_SIZE;
+                int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+                if (first <= last) {
+                    fireTableRowsUpdated(first, last);
+                }
+            }
+        }.execute();
+    }
+}
@@ -1,10 +1,119 @@
 package org.example.DataAccess;
 
+import org.example.Connection.ConnectionFactory;
+import org.example.Connection.UnitOfWork;
 import org.example.Model.Product;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
 /**
  * Data Access Object for the Product entity.
  * Inherits basic CRUD operations from AbstractDAO.
  */
 public class ProductDAO extends AbstractDAO<Product> {
+
+    private static final String RESERVE_STOCK_QUERY =
+            "UPDATE `Product` SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+    private static final int CACHE_SIZE = 1_000;
+    private static final long CACHE_TTL_MS = 60_000;
+    private static final int QUERY_CACHE_SIZE = 64;
+
+    /**
+     * Creates the DAO with a read-through cache, as the product catalogue is small and read often,
+     * with dirty tracking so that stock changes do not rewrite the name and price,
+     * and with a query cache so that reopening a window does not read unchanged pages again.
+     */
+    public ProductDAO() {
+        enableCache(CACHE_SIZE, CACHE_TTL_MS);
+        enableDirtyTracking();
+        enableQueryCache(QUERY_CACHE_SIZE, CACHE_TTL_MS);
+    }
+
+    /**
+     * Atomically takes the given quantity out of a product's stock.
+     * The check and the decrement happen in a single guarded UPDATE,
+     * so concurrent reservations can never drive the stock below zero.
+     *
+     * @param productId the ID of the product
+     * @param quantity  the quantity to reserve
+     * @return true if the product exists and had enough stock, false otherwise
+     */
+    public boolean reserveStock(int productId, int quantity) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(RESERVE_STOCK_QUERY)) {
+
+            statement.setInt(1, quantity);
+            statement.setInt(2, productId);
+            statement.setInt(3, quantity);
+            if (statement.executeUpdate() != 1) {
+                return false;
+            }
+            touch();
+            invalidateCached(productId);
+            forgetSnapshot(productId);
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Reserve stock failed: " + e.getMessage(), e);
+            UnitOfWork.markRollbackOnly();
+        }
+        return false;
+    }
+
+    /**
+     * Takes already reserved quantities out of the stock of many products with one JDBC batch
+     * in one transaction. Used to persist the stock changes collected in memory by the stock ledger.
+     * Every row is guarded like {@link #reserveStock(int, int)}, so the stock never drops below zero:
+     * if the stock of any product is too low, the whole batch is rolled back.
+     *
+     * @param deltas the quantity to take out, by product ID
+     * @throws InsufficientStockException if some products had too little stock; nothing was written
+     * @throws IllegalStateException      if the batch failed and was rolled back
+     */
+    public void applyStockDeltas(Map<Integer, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Integer> productIds = new ArrayList<>(deltas.keySet());
+        UnitOfWork.run(() -> {
+            Set<Integer> rejected = new HashSet<>();
+            try (Connection connection = ConnectionFactory.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(RESERVE_STOCK_QUERY)) {
+
+                for (Integer productId : productIds) {
+                    int quantity = deltas.get(productId);
+                    statement.setInt(1, quantity);
+                    statement.setInt(2, productId);
+                    statement.setInt(3, quantity);
+                    statement.addBatch();
+                }
+                int[] counts = statement.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        rejected.add(productIds.get(i));
+                    }
+                }
+                if (rejected.isEmpty()) {
+                    touch();
+                    for (Integer productId : productIds) {
+                        invalidateCached(productId);
+                        forgetSnapshot(productId);
+                    }
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Applying stock changes failed: " + e.getMessage(), e);
+                UnitOfWork.markRollbackOnly();
+            }
+            if (!rejected.isEmpty()) {
+                throw new InsufficientStockException(rejected);
+            }
+        });
+    }
 }
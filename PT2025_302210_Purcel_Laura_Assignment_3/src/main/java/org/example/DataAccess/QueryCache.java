@@ -0,0 +1,71 @@
+package org.example.DataAccess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of query results, each stamped with the {@link TableVersions table version} read before
+ * the query ran. A result is only served while the table still has that version, so any write through
+ * the DAOs drops every result of the table at once without tracking which rows they contain.
+ * Entries are evicted in least-recently-used order once the cache is full, and are dropped when
+ * they are older than the configured time to live.
+ *
+ * @param <V> the type of the cached results
+ */
+class QueryCache<V> {
+
+    private final long ttlNanos;
+    private final Map<Object, Entry<V>> entries;
+
+    private record Entry<V>(long version, long expiresAt, V value) {
+    }
+
+    /**
+     * Creates a cache holding at most {@code maxEntries} results, each for at most {@code ttlMillis}.
+     *
+     * @param maxEntries the maximum number of results
+     * @param ttlMillis  the time to live of a result in milliseconds
+     */
+    QueryCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the result cached for a query if it was read at the given table version.
+     *
+     * @param key     identifies the query and its parameters
+     * @param version the current version of the table
+     * @return the cached result, or null on a miss, if the table changed or if the entry expired
+     */
+    synchronized V get(Object key, long version) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version() != version || System.nanoTime() - entry.expiresAt() > 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Stores the result of a query.
+     *
+     * @param key     identifies the query and its parameters
+     * @param version the table version read before the query ran
+     * @param value   the result
+     */
+    synchronized void put(Object key, long version, V value) {
+        entries.put(key, new Entry<>(version, System.nanoTime() + ttlNanos, value));
+    }
+}
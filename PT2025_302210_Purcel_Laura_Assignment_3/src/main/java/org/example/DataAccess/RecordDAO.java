@@ -0,0 +1,222 @@
+package org.example.DataAccess;
+
+import java.lang.reflect.ParameterizedType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.example.Connection.ConnectionFactory;
+import org.example.Connection.UnitOfWork;
+
+/**
+ * Generic DAO for immutable Java records, such as audit entries and value types.
+ * Uses the compiled {@link RecordMetadata} of R: every component is a column, rows are read through the
+ * canonical constructor and statements are bound through the accessors. Records are only inserted and read,
+ * never updated in place.
+ *
+ * @param <R> the record type handled by this DAO
+ */
+public class RecordDAO<R extends Record> {
+    protected static final Logger LOGGER = Logger.getLogger(RecordDAO.class.getName());
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private final Class<R> type;
+    private final RecordMetadata<R> metadata;
+    private final String tableName;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private String duplicateKey;
+
+    /**
+     * Constructor that determines the actual record class at runtime and stores it in the table named after it.
+     */
+    public RecordDAO() {
+        this(null);
+    }
+
+    /**
+     * Constructor that determines the actual record class at runtime and stores it in the given table.
+     *
+     * @param tableName the table name, or null to use the simple name of the record class
+     */
+    @SuppressWarnings("unchecked")
+    protected RecordDAO(String tableName) {
+        this.type = (Class<R>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+        this.metadata = RecordMetadata.of(type);
+        this.tableName = tableName == null ? type.getSimpleName() : tableName;
+    }
+
+    /**
+     * Makes inserts skip records whose key is already in the table, instead of failing.
+     * Used for audit records that may be written more than once, for example when a batch is retried.
+     * Only a duplicate key is skipped: unlike {@code INSERT IGNORE}, NULL, truncated or invalid values still fail.
+     *
+     * @param keyColumn a column of the unique key, assigned to itself when the key is already present
+     */
+    protected void ignoreDuplicates(String keyColumn) {
+        duplicateKey = keyColumn;
+    }
+
+    /**
+     * Sets the number of records sent to the database per batch by {@link #insertAll(Collection)}.
+     *
+     * @param batchSize the number of statements per batch, at least 1
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public RecordMetadata<R> getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Creates an SQL INSERT query string for the type R, with one parameter per component.
+     *
+     * @return the INSERT SQL query
+     */
+    public String createInsertQuery() {
+        return metadata.query("insert:" + tableName + ':' + duplicateKey, () -> {
+            StringBuilder sb = new StringBuilder("INSERT INTO `").append(tableName).append("` (")
+                    .append(metadata.getColumnList()).append(") VALUES (");
+            for (int i = 0; i < metadata.getColumnCount(); i++) {
+                sb.append(i == 0 ? "?" : ", ?");
+            }
+            sb.append(')');
+            if (duplicateKey != null) {
+                sb.append(" ON DUPLICATE KEY UPDATE ").append(duplicateKey).append(" = ").append(duplicateKey);
+            }
+            return sb.toString();
+        });
+    }
+
+    /**
+     * Creates a SELECT SQL query of every column, followed by the given WHERE, ORDER BY and LIMIT clauses.
+     *
+     * @param suffix the clauses appended to the query, starting with a space, or an empty string
+     * @return the SELECT SQL query
+     */
+    protected String createSelectQuery(String suffix) {
+        return metadata.query("select:" + tableName + suffix,
+                () -> "SELECT " + metadata.getColumnList() + " FROM `" + tableName + '`' + suffix);
+    }
+
+    /**
+     * Inserts a record into the database.
+     * Inside a {@link UnitOfWork} a failure marks the transaction for rollback.
+     *
+     * @param record the record to insert
+     * @return the inserted record
+     */
+    public R insert(R record) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(createInsertQuery())) {
+
+            metadata.bind(statement, record);
+            statement.executeUpdate();
+            TableVersions.bump(tableName);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:insert " + e.getMessage(), e);
+            UnitOfWork.markRollbackOnly();
+        }
+        return record;
+    }
+
+    /**
+     * Inserts many records using JDBC batching on one connection and in one transaction.
+     * With batch rewriting enabled on the connection, each chunk reaches MySQL as a single multi-row INSERT.
+     *
+     * @param records the records to insert
+     * @throws IllegalStateException if the batch failed and was rolled back
+     */
+    public void insertAll(Collection<R> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        String query = createInsertQuery();
+        UnitOfWork.run(() -> {
+            try (Connection connection = ConnectionFactory.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+
+                int pending = 0;
+                for (R record : records) {
+                    metadata.bind(statement, record);
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+                TableVersions.bump(tableName);
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, type.getName() + "DAO:insertAll " + e.getMessage(), e);
+                UnitOfWork.markRollbackOnly();
+            }
+        });
+    }
+
+    /**
+     * Retrieves all records of type R from the database with a single query.
+     *
+     * @return a list of all records in the table
+     */
+    public List<R> findAll() {
+        return find("", statement -> {
+        });
+    }
+
+    /**
+     * Runs a SELECT of every column with the given clauses and reads every row of its result.
+     *
+     * @param suffix the WHERE, ORDER BY and LIMIT clauses, starting with a space
+     * @param binder sets the parameters used by the clauses
+     * @return the records found, empty if the query failed
+     */
+    protected List<R> find(String suffix, ParameterBinder binder) {
+        List<R> records = new ArrayList<>();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(createSelectQuery(suffix))) {
+
+            binder.bind(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    records.add(metadata.read(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:find " + e.getMessage(), e);
+        }
+        return records;
+    }
+
+    /**
+     * Streams all records of type R from the database without loading the whole table into memory.
+     * Rows are fetched from the server in chunks of {@link RowStreams#FETCH_SIZE} and mapped lazily.
+     * The returned stream holds an open connection and must be closed by the caller,
+     * preferably with a try-with-resources block.
+     *
+     * @return a lazily populated stream of records
+     */
+    public Stream<R> stream() {
+        return RowStreams.open(createSelectQuery(""), metadata::read, type.getName() + "DAO");
+    }
+
+    /**
+     * Sets the parameters of a prepared query.
+     */
+    @FunctionalInterface
+    protected interface ParameterBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
@@ -0,0 +1,289 @@
+package org.example.DataAccess;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Compiled description of a record class used by {@link RecordDAO}.
+ * Record components are scanned once per class: each component becomes a column read and bound through
+ * a method handle on its accessor, and rows are turned into records through the canonical constructor,
+ * so mapping a row or binding a statement does not go through reflection.
+ *
+ * @param <R> the record type described by this metadata
+ */
+public final class RecordMetadata<R extends Record> {
+
+    private static final ClassValue<RecordMetadata<?>> CACHE = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected RecordMetadata<?> computeValue(Class<?> type) {
+            return new RecordMetadata(type);
+        }
+    };
+
+    private final Class<R> type;
+    private final Component[] components;
+    private final String columnList;
+    private final MethodHandle constructor;
+    private final Map<String, String> queries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the compiled metadata for the given record class, building it on first use.
+     *
+     * @param type the record class
+     * @param <R>  the record type
+     * @return the metadata shared by every DAO of that type
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> RecordMetadata<R> of(Class<R> type) {
+        return (RecordMetadata<R>) CACHE.get(type);
+    }
+
+    private RecordMetadata(Class<R> type) {
+        this.type = type;
+        RecordComponent[] recordComponents = type.getRecordComponents();
+        if (recordComponents == null) {
+            throw new IllegalArgumentException(type.getName() + " is not a record");
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            Class<?>[] parameterTypes = new Class<?>[recordComponents.length];
+            this.components = new Component[recordComponents.length];
+            for (int i = 0; i < recordComponents.length; i++) {
+                parameterTypes[i] = recordComponents[i].getType();
+                components[i] = compile(recordComponents[i], lookup.unreflect(recordComponents[i].getAccessor()));
+            }
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+                    .asSpreader(Object[].class, recordComponents.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot compile record metadata for " + type.getName(), e);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < components.length; i++) {
+            sb.append(components[i].name);
+            if (i < components.length - 1) sb.append(", ");
+        }
+        this.columnList = sb.toString();
+    }
+
+    /**
+     * Builds the column for a single record component, choosing a primitive specialised column when possible.
+     */
+    private static Component compile(RecordComponent component, MethodHandle accessor) {
+        Class<?> componentType = component.getType();
+        if (componentType == int.class) {
+            return new IntComponent(component.getName(), accessor);
+        }
+        if (componentType == long.class) {
+            return new LongComponent(component.getName(), accessor);
+        }
+        if (componentType == double.class) {
+            return new DoubleComponent(component.getName(), accessor);
+        }
+        return new ObjectComponent(component.getName(), componentType, accessor);
+    }
+
+    public Class<R> getType() {
+        return type;
+    }
+
+    public int getColumnCount() {
+        return components.length;
+    }
+
+    public String getColumnName(int column) {
+        return components[column].name;
+    }
+
+    /**
+     * Returns the comma separated list of all columns, in record component order.
+     *
+     * @return the column list used in generated statements
+     */
+    public String getColumnList() {
+        return columnList;
+    }
+
+    /**
+     * Returns the SQL text stored under a key, generating it on first use.
+     *
+     * @param key     the name of the statement, including the table it targets
+     * @param builder generates the SQL text when it is not cached yet
+     * @return the cached SQL text
+     */
+    public String query(String key, Supplier<String> builder) {
+        String sql = queries.get(key);
+        if (sql == null) {
+            sql = queries.computeIfAbsent(key, k -> builder.get());
+        }
+        return sql;
+    }
+
+    /**
+     * Maps the current row of a ResultSet whose columns were selected with {@link #getColumnList()}
+     * by calling the canonical constructor. Columns are bound by index, starting at 1.
+     *
+     * @param resultSet the ResultSet positioned on the row to map
+     * @return the new record
+     * @throws SQLException if a column cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    public R read(ResultSet resultSet) throws SQLException {
+        Object[] values = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            values[i] = components[i].read(resultSet, i + 1);
+        }
+        try {
+            return (R) (Object) constructor.invokeExact(values);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot instantiate " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Binds every component of a record to consecutive statement parameters, starting at 1.
+     *
+     * @param statement the statement to bind
+     * @param record    the record to read from
+     * @throws SQLException if a parameter cannot be set
+     */
+    public void bind(PreparedStatement statement, R record) throws SQLException {
+        for (int i = 0; i < components.length; i++) {
+            components[i].bind(statement, i + 1, record);
+        }
+    }
+
+    /**
+     * Accessor for one record component.
+     */
+    private abstract static class Component {
+        final String name;
+
+        Component(String name) {
+            this.name = name;
+        }
+
+        abstract Object read(ResultSet resultSet, int index) throws SQLException;
+
+        abstract void bind(PreparedStatement statement, int index, Object source) throws SQLException;
+
+        IllegalStateException failure(Throwable e) {
+            return new IllegalStateException("Cannot access component " + name, e);
+        }
+    }
+
+    private static final class IntComponent extends Component {
+        private final MethodHandle accessor;
+
+        IntComponent(String name, MethodHandle accessor) {
+            super(name);
+            this.accessor = accessor.asType(MethodType.methodType(int.class, Object.class));
+        }
+
+        @Override
+        Object read(ResultSet resultSet, int index) throws SQLException {
+            return resultSet.getInt(index);
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            int value;
+            try {
+                value = (int) accessor.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+            statement.setInt(index, value);
+        }
+    }
+
+    private static final class LongComponent extends Component {
+        private final MethodHandle accessor;
+
+        LongComponent(String name, MethodHandle accessor) {
+            super(name);
+            this.accessor = accessor.asType(MethodType.methodType(long.class, Object.class));
+        }
+
+        @Override
+        Object read(ResultSet resultSet, int index) throws SQLException {
+            return resultSet.getLong(index);
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            long value;
+            try {
+                value = (long) accessor.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+            statement.setLong(index, value);
+        }
+    }
+
+    private static final class DoubleComponent extends Component {
+        private final MethodHandle accessor;
+
+        DoubleComponent(String name, MethodHandle accessor) {
+            super(name);
+            this.accessor = accessor.asType(MethodType.methodType(double.class, Object.class));
+        }
+
+        @Override
+        Object read(ResultSet resultSet, int index) throws SQLException {
+            return resultSet.getDouble(index);
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            double value;
+            try {
+                value = (double) accessor.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+            statement.setDouble(index, value);
+        }
+    }
+
+    /**
+     * Fallback accessor for reference types such as {@link String} and {@link java.time.LocalDateTime}.
+     */
+    private static final class ObjectComponent extends Component {
+        private final Class<?> javaType;
+        private final MethodHandle accessor;
+
+        ObjectComponent(String name, Class<?> javaType, MethodHandle accessor) {
+            super(name);
+            this.javaType = MethodType.methodType(javaType).wrap().returnType();
+            this.accessor = accessor.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        @Override
+        Object read(ResultSet resultSet, int index) throws SQLException {
+            return resultSet.getObject(index, javaType);
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int index, Object source) throws SQLException {
+            Object value;
+            try {
+                value = (Object) accessor.invokeExact(source);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+            statement.setObject(index, value);
+        }
+    }
+}
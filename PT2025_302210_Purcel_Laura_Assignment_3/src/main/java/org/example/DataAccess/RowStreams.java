@@ -0,0 +1,90 @@
+package org.example.DataAccess;
+
+import org.example.Connection.ConnectionFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the rows of a query without loading them all into memory, for {@link AbstractDAO} and {@link RecordDAO}.
+ * Rows are fetched from the server in chunks of {@link #FETCH_SIZE} and mapped lazily.
+ * The stream holds the connection, the statement and the result set until it is closed.
+ */
+final class RowStreams {
+
+    private static final Logger LOGGER = Logger.getLogger(RowStreams.class.getName());
+
+    static final int FETCH_SIZE = 500;
+
+    /**
+     * Maps the current row of a result set.
+     */
+    @FunctionalInterface
+    interface RowReader<T> {
+        T read(ResultSet resultSet) throws SQLException;
+    }
+
+    private RowStreams() {
+    }
+
+    /**
+     * Runs a query with a forward-only cursor and streams its rows.
+     *
+     * @param query  the SELECT statement, without parameters
+     * @param reader maps each row
+     * @param source the name used in log and error messages
+     * @param <T>    the type of the mapped rows
+     * @return a lazily populated stream that must be closed, empty if the query could not be run
+     */
+    static <T> Stream<T> open(String query, RowReader<T> reader, String source) {
+        Connection connection = ConnectionFactory.getConnection();
+        if (connection == null) {
+            return Stream.empty();
+        }
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            resultSet = statement.executeQuery();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, source + ":stream " + e.getMessage(), e);
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+            return Stream.empty();
+        }
+
+        ResultSet rows = resultSet;
+        PreparedStatement openStatement = statement;
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rows.next()) {
+                        return false;
+                    }
+                    action.accept(reader.read(rows));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException(source + ":stream " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            ConnectionFactory.close(rows);
+            ConnectionFactory.close(openStatement);
+            ConnectionFactory.close(connection);
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.DataAccess;
+
+import org.example.Connection.UnitOfWork;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamp of every table, raised by the DAOs each time they write to it.
+ * A view or a cache remembers the version it read before loading and later asks whether the table
+ * {@link #changedSince(String, long) changed since} then, which costs no database round trip.
+ * Writes made inside a {@link UnitOfWork} raise the version once it commits, so a stamp read while
+ * the transaction is open still describes the rows other connections can see.
+ * <p>
+ * Versions are kept in memory and only count the writes made through the DAOs of this application;
+ * caches relying on them should still expire their entries to pick up changes made by other clients.
+ */
+public final class TableVersions {
+
+    private static final Map<String, AtomicLong> VERSIONS = new ConcurrentHashMap<>();
+
+    private TableVersions() {
+    }
+
+    /**
+     * Returns the current version of a table.
+     *
+     * @param table the table name
+     * @return the version, 0 if the table was not written since the application started
+     */
+    public static long current(String table) {
+        AtomicLong version = VERSIONS.get(table);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * Tells whether a table was written since a version was read.
+     *
+     * @param table   the table name
+     * @param version a version returned by {@link #current(String)}
+     * @return true if the table changed since, false if it still holds the same rows
+     */
+    public static boolean changedSince(String table, long version) {
+        return current(table) != version;
+    }
+
+    /**
+     * Raises the version of a table after a write, once the active unit of work commits if there is one.
+     * Must be called after the statement was executed, so a reader never stamps old rows with the new version.
+     *
+     * @param table the table name
+     */
+    static void bump(String table) {
+        AtomicLong version = VERSIONS.computeIfAbsent(table, t -> new AtomicLong());
+        UnitOfWork.afterCommit(version::incrementAndGet);
+    }
+}
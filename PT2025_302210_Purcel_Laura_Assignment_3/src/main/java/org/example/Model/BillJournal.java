@@ -0,0 +1,467 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local append-only journal of bills, stored as fixed-width records in memory-mapped segment files.
+ * Appending a bill writes a few bytes into mapped memory and forces that record to disk before returning,
+ * so an appended bill survives a crash of the process or of the operating system. A background replayer
+ * then pushes the journaled bills into the database in batches and records how far it got in a checkpoint file.
+ * Bills keep being journaled while the database is unreachable and are replayed once it is back.
+ * <p>
+ * Every record is {@value #RECORD_SIZE} bytes: a marker, the four int components, the total price,
+ * and the timestamp as epoch seconds and nanoseconds. The marker is written last, so a record torn by a crash
+ * is recognised and overwritten when the journal is opened again; it is changed once more when the record
+ * has been replayed. Records are addressed by a position that counts from the first record ever written,
+ * segment {@code n} holding the positions from {@code n * RECORDS_PER_SEGMENT}. Segments that are fully
+ * replayed are deleted. If the checkpoint is missing or torn, the replay position is found again by
+ * scanning the remaining segments for the first record not marked as replayed.
+ * <p>
+ * The directory is locked while the journal is open, so a second instance of the application
+ * cannot map and corrupt the same files.
+ */
+public final class BillJournal {
+
+    private static final Logger LOGGER = Logger.getLogger(BillJournal.class.getName());
+
+    private static final int RECORD_SIZE = 40;
+    private static final int RECORDS_PER_SEGMENT = 1 << 16;
+    private static final long SEGMENT_SIZE = (long) RECORD_SIZE * RECORDS_PER_SEGMENT;
+    private static final int COMMITTED = 0x42494C4C;
+    private static final int REPLAYED = 0x5245504C;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String LOCK_FILE = "lock";
+    private static final int REPLAY_BATCH_SIZE = 500;
+    private static final long REPLAY_INTERVAL_MS = 100;
+    private static final long RETRY_BACKOFF_MS = 2_000;
+
+    /**
+     * Destination of replayed bills. A batch is replayed again if this throws,
+     * so it must tolerate bills that were already written.
+     */
+    @FunctionalInterface
+    public interface Target {
+        void write(List<Bill> bills) throws SQLException;
+    }
+
+    private final Path directory;
+    private final Target target;
+    private final FileChannel lockChannel;
+    private final Object replayLock = new Object();
+    private final Thread replayer;
+    private volatile boolean closed;
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+    private volatile long appended;
+
+    private long readSegment = -1;
+    private MappedByteBuffer readBuffer;
+    private volatile long replayed;
+
+    private final LongAdder replayedBills = new LongAdder();
+    private final LongAdder replayFailures = new LongAdder();
+
+    /**
+     * Opens the journal in the given directory, recovering the append position and the replay position
+     * of an earlier run, and starts the replayer.
+     *
+     * @param directory the directory holding the segment files and the checkpoint
+     * @param target    where replayed bills are written
+     * @throws IOException if the directory or a segment cannot be opened,
+     *                     or if another process has the journal open
+     */
+    public BillJournal(Path directory, Target target) throws IOException {
+        this.directory = directory;
+        this.target = target;
+        Files.createDirectories(directory);
+        this.lockChannel = lock(directory);
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+
+        replayer = new Thread(this::replayLoop, "bill-journal-replayer");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    /**
+     * Takes an exclusive lock on the journal directory, held until the journal is closed.
+     */
+    private static FileChannel lock(Path directory) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IOException("The bill journal in " + directory + " is used by another process");
+        }
+        return channel;
+    }
+
+    /**
+     * Finds the append position after the last committed record and the replay position,
+     * from the checkpoint or, if it cannot be trusted, by scanning the segments.
+     * Segments before the replay position are deleted.
+     */
+    private void recover() throws IOException {
+        TreeSet<Long> segments = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : files) {
+                long number = segmentNumber(segment);
+                if (number >= 0) {
+                    segments.add(number);
+                }
+            }
+        }
+        long checkpoint = readCheckpoint();
+        long lastSegment = segments.isEmpty() ? Math.max(checkpoint, 0) / RECORDS_PER_SEGMENT : segments.last();
+
+        writeSegment = lastSegment;
+        writeBuffer = map(lastSegment, FileChannel.MapMode.READ_WRITE);
+        int index = 0;
+        while (index < RECORDS_PER_SEGMENT && isRecord(writeBuffer.getInt(index * RECORD_SIZE))) {
+            index++;
+        }
+        appended = lastSegment * RECORDS_PER_SEGMENT + index;
+
+        if (checkpoint > appended) {
+            LOGGER.log(Level.WARNING, "The bill journal checkpoint is ahead of the journal, scanning the journal");
+            checkpoint = -1;
+        }
+        long first = (segments.isEmpty() ? lastSegment : segments.first()) * RECORDS_PER_SEGMENT;
+        replayed = checkpoint >= first ? checkpoint : scanReplayed(first);
+
+        for (long segment : segments) {
+            if (segment < replayed / RECORDS_PER_SEGMENT) {
+                Files.deleteIfExists(segmentFile(segment));
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the first record, from the given one on, that is not marked as replayed.
+     */
+    private long scanReplayed(long position) throws IOException {
+        MappedByteBuffer buffer = null;
+        long mapped = -1;
+        while (position < appended) {
+            long segment = position / RECORDS_PER_SEGMENT;
+            if (segment != mapped) {
+                if (!Files.exists(segmentFile(segment))) {
+                    position = (segment + 1) * RECORDS_PER_SEGMENT;
+                    continue;
+                }
+                buffer = map(segment, FileChannel.MapMode.READ_ONLY);
+                mapped = segment;
+            }
+            if (buffer.getInt((int) (position - segment * RECORDS_PER_SEGMENT) * RECORD_SIZE) != REPLAYED) {
+                break;
+            }
+            position++;
+        }
+        return Math.min(position, appended);
+    }
+
+    private static boolean isRecord(int marker) {
+        return marker == COMMITTED || marker == REPLAYED;
+    }
+
+    /**
+     * Appends a bill to the journal and forces its record to disk.
+     * The bill is replayed into the database in the background.
+     *
+     * @param bill the bill to journal
+     * @throws UncheckedIOException if a new segment cannot be created
+     * @throws IllegalStateException if the journal is closed
+     */
+    public synchronized void append(Bill bill) {
+        if (closed) {
+            throw new IllegalStateException("The bill journal is closed");
+        }
+        int index = (int) (appended - writeSegment * RECORDS_PER_SEGMENT);
+        if (index == RECORDS_PER_SEGMENT) {
+            try {
+                writeBuffer = map(writeSegment + 1, FileChannel.MapMode.READ_WRITE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create a bill journal segment", e);
+            }
+            writeSegment++;
+            index = 0;
+        }
+        int base = index * RECORD_SIZE;
+        writeBuffer.putInt(base + 4, bill.orderId());
+        writeBuffer.putInt(base + 8, bill.clientId());
+        writeBuffer.putInt(base + 12, bill.productId());
+        writeBuffer.putInt(base + 16, bill.quantity());
+        writeBuffer.putDouble(base + 20, bill.totalPrice());
+        writeBuffer.putLong(base + 28, bill.timestamp().toEpochSecond(ZoneOffset.UTC));
+        writeBuffer.putInt(base + 36, bill.timestamp().getNano());
+        writeBuffer.putInt(base, COMMITTED);
+        writeBuffer.force(base, RECORD_SIZE);
+        appended++;
+    }
+
+    /**
+     * Replays everything appended so far and waits until it is in the database.
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if every appended bill was replayed within the timeout
+     */
+    public boolean flush(long timeoutMillis) {
+        long target = appended;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (replayLock) {
+            replayLock.notifyAll();
+            while (replayed < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    replayLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops the replayer after a last replay attempt, forces the current segment to disk
+     * and releases the lock on the directory.
+     * Bills that could not be replayed stay in the journal for the next run.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            writeBuffer.force();
+        }
+        synchronized (replayLock) {
+            replayLock.notifyAll();
+        }
+        try {
+            replayer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not release the bill journal lock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of bills appended but not yet replayed into the database.
+     *
+     * @return the replay backlog
+     */
+    public long getPendingBills() {
+        return appended - replayed;
+    }
+
+    public long getReplayedBills() {
+        return replayedBills.sum();
+    }
+
+    public long getReplayFailures() {
+        return replayFailures.sum();
+    }
+
+    private void replayLoop() {
+        while (true) {
+            boolean done = closed;
+            long wait = REPLAY_INTERVAL_MS;
+            try {
+                replayAvailable();
+            } catch (SQLException | RuntimeException e) {
+                replayFailures.increment();
+                LOGGER.log(Level.WARNING, "Failed to replay the bill journal, " + getPendingBills()
+                        + " bills are pending: " + e.getMessage());
+                wait = RETRY_BACKOFF_MS;
+            }
+            if (done) {
+                return;
+            }
+            synchronized (replayLock) {
+                try {
+                    replayLock.wait(wait);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replays every bill appended so far, one batch at a time. After each batch its records are marked
+     * as replayed and the checkpoint is saved.
+     *
+     * @throws SQLException if a batch could not be written
+     */
+    private void replayAvailable() throws SQLException {
+        long end = appended;
+        while (replayed < end) {
+            long segment = replayed / RECORDS_PER_SEGMENT;
+            long segmentEnd = (segment + 1) * RECORDS_PER_SEGMENT;
+            int count = (int) Math.min(REPLAY_BATCH_SIZE, Math.min(end, segmentEnd) - replayed);
+            List<Bill> batch = read(segment, (int) (replayed - segment * RECORDS_PER_SEGMENT), count);
+
+            target.write(batch);
+            markReplayed((int) (replayed - segment * RECORDS_PER_SEGMENT), count);
+
+            synchronized (replayLock) {
+                replayed += count;
+                replayLock.notifyAll();
+            }
+            replayedBills.add(count);
+            writeCheckpoint(replayed);
+            if (replayed == segmentEnd) {
+                deleteSegment(segment);
+            }
+        }
+    }
+
+    private List<Bill> read(long segment, int index, int count) {
+        if (segment != readSegment) {
+            try {
+                readBuffer = map(segment, FileChannel.MapMode.READ_WRITE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read bill journal segment " + segment, e);
+            }
+            readSegment = segment;
+        }
+        List<Bill> bills = new ArrayList<>(count);
+        for (int i = index; i < index + count; i++) {
+            int base = i * RECORD_SIZE;
+            bills.add(new Bill(
+                    readBuffer.getInt(base + 4),
+                    readBuffer.getInt(base + 8),
+                    readBuffer.getInt(base + 12),
+                    readBuffer.getInt(base + 16),
+                    readBuffer.getDouble(base + 20),
+                    LocalDateTime.ofEpochSecond(readBuffer.getLong(base + 28), readBuffer.getInt(base + 36),
+                            ZoneOffset.UTC)));
+        }
+        return bills;
+    }
+
+    /**
+     * Marks records of the segment being read as replayed. The markers are not forced to disk:
+     * if they are lost, the records are replayed again, which the target tolerates.
+     */
+    private void markReplayed(int index, int count) {
+        for (int i = index; i < index + count; i++) {
+            readBuffer.putInt(i * RECORD_SIZE, REPLAYED);
+        }
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve(String.format("%016d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    private MappedByteBuffer map(long segment, FileChannel.MapMode mode) throws IOException {
+        Path file = segmentFile(segment);
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(mode, 0, SEGMENT_SIZE);
+        }
+    }
+
+    private void deleteSegment(long segment) {
+        if (segment == readSegment) {
+            readSegment = -1;
+            readBuffer = null;
+        }
+        try {
+            Files.deleteIfExists(segmentFile(segment));
+        } catch (IOException e) {
+            // still mapped on some platforms, it is removed when the journal is opened again
+            LOGGER.log(Level.FINE, "Could not delete replayed bill journal segment " + segment);
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads the replay position saved by {@link #writeCheckpoint(long)}.
+     * The position is stored together with its complement, so a torn or corrupted file is detected.
+     *
+     * @return the position, or -1 if there is no valid checkpoint
+     */
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length == 2 * Long.BYTES) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long position = buffer.getLong();
+            if (position >= 0 && buffer.getLong() == ~position) {
+                return position;
+            }
+        }
+        LOGGER.log(Level.WARNING, "The bill journal checkpoint is damaged, scanning the journal");
+        return -1;
+    }
+
+    /**
+     * Saves the replay position by writing a temporary file and moving it over the checkpoint,
+     * so the checkpoint is never seen half written.
+     *
+     * @param position the position of the first bill not yet replayed
+     */
+    private void writeCheckpoint(long position) {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.write(temp, ByteBuffer.allocate(2 * Long.BYTES).putLong(position).putLong(~position).array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not save the bill journal checkpoint: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package org.example.Model;
+
+import org.example.Connection.ConnectionFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background writer that takes bills off a bounded queue and writes them to the "Log" table in batches.
+ * A batch is written once it is full or once the oldest queued bill has waited for the flush interval,
+ * and every batch is committed in a single transaction. Failed batches are retried a few times;
+ * the insert ignores bills that are already logged, so a retried batch never duplicates a row.
+ * Whatever is still queued is written when the connection pool shuts down.
+ */
+public final class BillWriter {
+
+    private static final Logger LOGGER = Logger.getLogger(BillWriter.class.getName());
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int BATCH_SIZE = 200;
+    private static final long FLUSH_INTERVAL_MS = 200;
+    private static final long OFFER_TIMEOUT_MS = 50;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 500;
+
+    private final BlockingQueue<Bill> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Object flushLock = new Object();
+    private final Thread thread;
+    private volatile boolean stopped;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private long submitted;
+    private long completed;
+
+    /**
+     * Creates and starts the writer thread.
+     */
+    BillWriter() {
+        this.thread = new Thread(this::drain, "bill-writer");
+        thread.setDaemon(true);
+        thread.start();
+        ConnectionFactory.beforeShutdown(this::stop);
+    }
+
+    /**
+     * Queues a bill to be written. If the queue stays full for a short while the bill is dropped
+     * and counted, so the caller is never blocked by a slow database.
+     *
+     * @param bill the bill to write
+     * @return true if the bill was queued
+     */
+    public boolean submit(Bill bill) {
+        if (!stopped) {
+            try {
+                if (queue.offer(bill, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    synchronized (flushLock) {
+                        submitted++;
+                    }
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        dropped.increment();
+        LOGGER.log(Level.WARNING, "Dropped bill for order " + bill.orderId()
+                + (stopped ? ", the bill writer has stopped" : ", the log queue is full"));
+        return false;
+    }
+
+    /**
+     * Waits until every bill queued so far has been written or dropped.
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if everything was flushed within the timeout
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (flushLock) {
+            long target = submitted;
+            while (completed < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    flushLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getWrittenBills() {
+        return written.sum();
+    }
+
+    public long getDroppedBills() {
+        return dropped.sum();
+    }
+
+    public long getRetriedBills() {
+        return retried.sum();
+    }
+
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    /**
+     * Returns the average time taken to write and commit one batch.
+     *
+     * @return the average flush latency in milliseconds, or 0 if nothing was flushed yet
+     */
+    public double getAverageFlushMillis() {
+        long count = flushes.sum();
+        return count == 0 ? 0 : flushNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Stops taking new bills and writes everything still queued.
+     */
+    private void stop() {
+        stopped = true;
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writer loop: waits for a bill, then collects more until the batch is full
+     * or the flush interval since the first bill has passed, and writes the batch.
+     */
+    private void drain() {
+        List<Bill> batch = new ArrayList<>(BATCH_SIZE);
+        while (!stopped || !queue.isEmpty()) {
+            try {
+                Bill bill = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (bill == null) {
+                    continue;
+                }
+                batch.add(bill);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+                while (batch.size() < BATCH_SIZE && !stopped) {
+                    Bill next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts the wait, the loop then writes whatever is left
+            }
+            queue.drainTo(batch, BATCH_SIZE - batch.size());
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes one batch in a single transaction, retrying a few times before giving up on it.
+     *
+     * @param batch the bills to write
+     */
+    private void write(List<Bill> batch) {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                Log.insertBatch(batch);
+                long elapsed = System.nanoTime() - start;
+                flushes.increment();
+                flushNanos.add(elapsed);
+                lastFlushNanos.set(elapsed);
+                written.add(batch.size());
+                Log.fireWritten(List.copyOf(batch));
+                break;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    dropped.add(batch.size());
+                    LOGGER.log(Level.SEVERE, "Failed to write " + batch.size() + " bills: " + e.getMessage(), e);
+                    break;
+                }
+                retried.add(batch.size());
+                LOGGER.log(Level.WARNING, "Failed to write " + batch.size() + " bills, retrying: " + e.getMessage());
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MS * attempt);
+                } catch (InterruptedException ie) {
+                    // keep retrying, the batch still has to be written before shutdown
+                }
+            }
+        }
+        synchronized (flushLock) {
+            completed += batch.size();
+            flushLock.notifyAll();
+        }
+    }
+}
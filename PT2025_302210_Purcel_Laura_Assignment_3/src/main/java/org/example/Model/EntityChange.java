@@ -0,0 +1,31 @@
+package org.example.Model;
+
+/**
+ * Describes one row changed by a write, so that views can update that row instead of reloading everything.
+ * <p>
+ * This is a Java {@code record}. The {@code entity} component holds the state after the change,
+ * and is null for a deleted row.
+ *
+ * @param kind   whether the row was inserted, updated or deleted
+ * @param id     the ID of the changed row
+ * @param entity the entity after the change, or null if it was deleted
+ * @param <T>    the entity type
+ */
+public record EntityChange<T>(Kind kind, int id, T entity) {
+
+    public enum Kind {
+        INSERTED, UPDATED, DELETED
+    }
+
+    public static <T> EntityChange<T> inserted(int id, T entity) {
+        return new EntityChange<>(Kind.INSERTED, id, entity);
+    }
+
+    public static <T> EntityChange<T> updated(int id, T entity) {
+        return new EntityChange<>(Kind.UPDATED, id, entity);
+    }
+
+    public static <T> EntityChange<T> deleted(int id) {
+        return new EntityChange<>(Kind.DELETED, id, null);
+    }
+}
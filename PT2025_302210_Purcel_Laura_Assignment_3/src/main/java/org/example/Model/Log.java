@@ -1,94 +1,213 @@
 package org.example.Model;
 
 import org.example.Connection.ConnectionFactory;
+import org.example.Connection.UnitOfWork;
+import org.example.DataAccess.BillDAO;
 
-import java.lang.reflect.RecordComponent;
-import java.sql.*;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Class that manages logging of bills into the database.
- * It allows insertion of a Bill, finding a Bill by order ID,
- * and retrieving all Bill entries.
+ * Class that manages logging of bills into the database, through the {@link BillDAO}.
+ * It allows insertion of a Bill, either right away or through the local journal
+ * and the background writer, and retrieving Bill entries by time range, client, product
+ * or since the last bill seen, one page at a time.
  */
 public class Log {
 
     private static final Logger LOGGER = Logger.getLogger(Log.class.getName());
+    private static final BillDAO BILL_DAO = new BillDAO();
+    private static final String JOURNAL_DIRECTORY = System.getProperty("orderdb.journal.dir", "journal");
+    private static final List<Consumer<List<Bill>>> WRITE_LISTENERS = new CopyOnWriteArrayList<>();
 
     /**
-     * Inserts a new Bill into the "Log" table of the database.
-     * It uses reflection to build the SQL insert query dynamically based on
-     * the fields of the Bill record.
+     * Inserts a new Bill into the "Log" table of the database right away.
+     * Inside a transaction a failure marks it for rollback.
      *
      * @param bill the Bill object to be inserted into the database
      */
     public void insertBill(Bill bill) {
-        StringBuilder query = new StringBuilder("INSERT INTO `Log` (");
+        BILL_DAO.insert(bill);
+    }
 
-        RecordComponent[] components = Bill.class.getRecordComponents();
-        for (int i = 0; i < components.length; i++) {
-            query.append(components[i].getName());
-            if (i < components.length - 1)
-                query.append(", ");
-        }
+    /**
+     * Logs a Bill without waiting for the database. The bill is appended to the local journal,
+     * which replays it into the "Log" table in the background; if the journal is not available
+     * the bill is queued for the background writer instead.
+     * Inside a transaction the bill is logged only once the transaction has committed.
+     * A bill already present in the table is skipped, so replaying a bill twice is harmless.
+     *
+     * @param bill the Bill object to be written to the database
+     */
+    public void submitBill(Bill bill) {
+        UnitOfWork.afterCommit(() -> {
+            BillJournal journal = journal();
+            if (journal != null) {
+                try {
+                    journal.append(bill);
+                    return;
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Could not journal bill for order " + bill.orderId()
+                            + ", queueing it instead: " + e.getMessage());
+                }
+            }
+            writer().submit(bill);
+        });
+    }
 
-        query.append(") VALUES (");
-        for (int i = 0; i < components.length; i++) {
-            query.append("?");
-            if (i < components.length - 1)
-                query.append(", ");
+    /**
+     * Waits until every bill submitted so far has been written to the "Log" table.
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if all submitted bills were written within the timeout
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        BillJournal journal = journal();
+        if (journal != null && !journal.flush(timeoutMillis)) {
+            return false;
         }
-        query.append(")");
+        return writer().flush(Math.max(0, deadline - System.currentTimeMillis()));
+    }
 
-        try (Connection connection = ConnectionFactory.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query.toString())) {
+    /**
+     * Returns the local bill journal, which also exposes the replay backlog and failure counters.
+     *
+     * @return the shared bill journal, or null if it could not be opened
+     */
+    public static BillJournal journal() {
+        return JournalHolder.JOURNAL;
+    }
 
-            statement.setInt(1, bill.orderId());
-            statement.setInt(2, bill.clientId());
-            statement.setInt(3, bill.productId());
-            statement.setInt(4, bill.quantity());
-            statement.setDouble(5, bill.totalPrice());
-            statement.setTimestamp(6, Timestamp.valueOf(bill.timestamp()));
+    /**
+     * Returns the background writer, which also exposes queue depth, flush latency and drop counters.
+     *
+     * @return the shared bill writer
+     */
+    public static BillWriter writer() {
+        return WriterHolder.WRITER;
+    }
+
+    /**
+     * Registers a listener called from a background thread with every batch of bills written to the "Log" table
+     * by the journal or the background writer.
+     *
+     * @param listener the listener receiving the written bills
+     */
+    public static void addWriteListener(Consumer<List<Bill>> listener) {
+        WRITE_LISTENERS.add(listener);
+    }
 
-            statement.executeUpdate();
+    public static void removeWriteListener(Consumer<List<Bill>> listener) {
+        WRITE_LISTENERS.remove(listener);
+    }
 
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to insert bill: " + e.getMessage(), e);
+    static void fireWritten(List<Bill> bills) {
+        for (Consumer<List<Bill>> listener : WRITE_LISTENERS) {
+            listener.accept(bills);
         }
     }
 
+    /**
+     * Inserts a batch of bills in a single transaction, skipping bills that are already logged.
+     *
+     * @param bills the bills to insert
+     * @throws IllegalStateException if the batch could not be written; nothing is committed in that case
+     */
+    static void insertBatch(List<Bill> bills) {
+        BILL_DAO.insertAll(bills);
+    }
+
     /**
      * Retrieves all Bill entries from the "Log" table.
      *
      * @return a list containing all Bill objects found in the database
      */
     public List<Bill> findAll() {
-        List<Bill> bills = new ArrayList<>();
-        String query = "SELECT * FROM `Log`";
-
-        try (Connection connection = ConnectionFactory.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query);
-             ResultSet resultSet = statement.executeQuery()) {
-
-            while (resultSet.next()) {
-                Bill bill = new Bill(
-                        resultSet.getInt("orderId"),
-                        resultSet.getInt("clientId"),
-                        resultSet.getInt("productId"),
-                        resultSet.getInt("quantity"),
-                        resultSet.getDouble("totalPrice"),
-                        resultSet.getTimestamp("timestamp").toLocalDateTime()
-                );
-                bills.add(bill);
-            }
+        return BILL_DAO.findAll();
+    }
+
+    /**
+     * Retrieves the bills with an order ID greater than the last one seen, in order ID order.
+     * Used to append only new bills to a view that already shows the older ones.
+     *
+     * @param lastOrderId the highest order ID already seen, or 0 to start from the first bill
+     * @param limit       the maximum number of bills to return
+     * @return the newer bills
+     */
+    public List<Bill> findSince(int lastOrderId, int limit) {
+        return BILL_DAO.findSince(lastOrderId, limit);
+    }
 
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to retrieve all bills: " + e.getMessage(), e);
+    /**
+     * Retrieves one page of the bills issued in a time range, ordered by timestamp and then order ID.
+     *
+     * @param from  the start of the range, inclusive
+     * @param to    the end of the range, exclusive
+     * @param after the last bill of the previous page, or null for the first page
+     * @param limit the maximum number of bills to return
+     * @return the bills of the page
+     */
+    public List<Bill> findBetween(LocalDateTime from, LocalDateTime to, Bill after, int limit) {
+        return BILL_DAO.findBetween(from, to, after, limit);
+    }
+
+    /**
+     * Retrieves one page of the bills of a client, in order ID order.
+     *
+     * @param clientId the ID of the client
+     * @param after    the last bill of the previous page, or null for the first page
+     * @param limit    the maximum number of bills to return
+     * @return the bills of the page
+     */
+    public List<Bill> findByClient(int clientId, Bill after, int limit) {
+        return BILL_DAO.findByClient(clientId, after, limit);
+    }
+
+    /**
+     * Retrieves one page of the bills of a product, in order ID order.
+     *
+     * @param productId the ID of the product
+     * @param after     the last bill of the previous page, or null for the first page
+     * @param limit     the maximum number of bills to return
+     * @return the bills of the page
+     */
+    public List<Bill> findByProduct(int productId, Bill after, int limit) {
+        return BILL_DAO.findByProduct(productId, after, limit);
+    }
+
+    /**
+     * Opens the journal on first use only, replaying whatever an earlier run left in it.
+     */
+    private static final class JournalHolder {
+        private static final BillJournal JOURNAL = open();
+
+        private static BillJournal open() {
+            try {
+                BillJournal journal = new BillJournal(Paths.get(JOURNAL_DIRECTORY), bills -> {
+                    insertBatch(bills);
+                    fireWritten(bills);
+                });
+                ConnectionFactory.beforeShutdown(journal::close);
+                return journal;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Could not open the bill journal in " + JOURNAL_DIRECTORY
+                        + ", bills are queued in memory instead: " + e.getMessage());
+                return null;
+            }
         }
+    }
 
-        return bills;
+    /**
+     * Starts the writer thread on first use only.
+     */
+    private static final class WriterHolder {
+        private static final BillWriter WRITER = new BillWriter();
     }
 }
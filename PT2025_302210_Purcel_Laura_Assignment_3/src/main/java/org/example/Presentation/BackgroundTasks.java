@@ -0,0 +1,215 @@
+package org.example.Presentation;
+
+import org.example.Business.ChangeBus;
+import org.example.Model.EntityChange;
+
+import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the database work of a window on SwingWorker threads and applies the results on the Event Dispatch Thread,
+ * so the window keeps repainting while queries run.
+ * Loads are grouped by a key, usually one per table: at most one load per key runs at a time,
+ * repeated refreshes requested meanwhile are coalesced into a single one, and results that were overtaken
+ * by a newer refresh, or that arrive after the window was closed, are dropped instead of applied.
+ * Running queries are not interrupted, as interrupting JDBC calls would break pooled connections.
+ * All methods must be called on the Event Dispatch Thread.
+ */
+class BackgroundTasks {
+
+    private static final Logger LOGGER = Logger.getLogger(BackgroundTasks.class.getName());
+
+    private final JFrame owner;
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final List<Consumer<?>> subscriptions = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Loads of one key. The generation grows with every refresh, so older results can be recognised.
+     */
+    private static final class Slot {
+        private int generation;
+        private SwingWorker<?, ?> running;
+        private Runnable pending;
+    }
+
+    /**
+     * Creates the task runner of a window. Results still running when the window is closed are dropped,
+     * and the window stops receiving changes from the {@link ChangeBus}.
+     *
+     * @param owner the window showing the results and any error message
+     */
+    BackgroundTasks(JFrame owner) {
+        this.owner = owner;
+        owner.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                closed = true;
+                slots.values().forEach(slot -> slot.pending = null);
+                subscriptions.forEach(ChangeBus::unsubscribe);
+            }
+        });
+    }
+
+    /**
+     * Loads data whose result replaces what is shown, such as the first page of a table.
+     * If a load of the same key is running, this request waits for it and replaces any other waiting request;
+     * the result of the running load is then dropped, as it is stale.
+     *
+     * @param key   the table or view being loaded
+     * @param load  the database work, run in the background
+     * @param apply shows the result, run on the Event Dispatch Thread
+     * @param <T>   the result type
+     */
+    <T> void refresh(String key, Supplier<T> load, Consumer<T> apply) {
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+        slot.generation++;
+        if (slot.running != null) {
+            slot.pending = () -> refresh(key, load, apply);
+            return;
+        }
+        start(slot, load, apply);
+    }
+
+    /**
+     * Loads data that is added to what is shown, such as the next page of a table.
+     * The request is ignored while a load of the same key is running, and its result is dropped
+     * if the key is refreshed before it completes.
+     *
+     * @param key   the table or view being loaded
+     * @param load  the database work, run in the background
+     * @param apply shows the result, run on the Event Dispatch Thread
+     * @param <T>   the result type
+     * @return true if the load was started
+     */
+    <T> boolean append(String key, Supplier<T> load, Consumer<T> apply) {
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+        if (slot.running != null) {
+            return false;
+        }
+        start(slot, load, apply);
+        return true;
+    }
+
+    /**
+     * Runs a change, such as an insert or an order placement, in the background.
+     * The component that triggered it is disabled until the change completes, so it cannot be submitted twice.
+     * A failure is shown to the user in an error dialog.
+     *
+     * @param trigger      the component to disable while the change runs, or null
+     * @param errorMessage the text shown before the error message if the change fails
+     * @param action       the database work, run in the background
+     * @param onSuccess    run on the Event Dispatch Thread with the result of the change
+     * @param <T>          the result type
+     */
+    <T> void run(JComponent trigger, String errorMessage, Supplier<T> action, Consumer<T> onSuccess) {
+        if (trigger != null) {
+            trigger.setEnabled(false);
+        }
+        new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() {
+                return action.get();
+            }
+
+            @Override
+            protected void done() {
+                if (trigger != null) {
+                    trigger.setEnabled(true);
+                }
+                try {
+                    T result = get();
+                    if (!closed) {
+                        onSuccess.accept(result);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    showError(errorMessage, e.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Runs a change that has no result in the background.
+     *
+     * @param trigger      the component to disable while the change runs, or null
+     * @param errorMessage the text shown before the error message if the change fails
+     * @param action       the database work, run in the background
+     * @param onSuccess    run on the Event Dispatch Thread once the change is done
+     */
+    void run(JComponent trigger, String errorMessage, Runnable action, Runnable onSuccess) {
+        run(trigger, errorMessage, () -> {
+            action.run();
+            return null;
+        }, result -> onSuccess.run());
+    }
+
+    /**
+     * Delivers the changes of one entity type published on the {@link ChangeBus} to this window,
+     * on the Event Dispatch Thread, until the window is closed.
+     *
+     * @param type     the entity class whose changes are delivered
+     * @param consumer applies a batch of changes to the window
+     * @param <T>      the entity type
+     */
+    <T> void subscribe(Class<T> type, Consumer<List<EntityChange<T>>> consumer) {
+        Consumer<List<EntityChange<T>>> subscriber = changes -> {
+            if (!closed) {
+                consumer.accept(changes);
+            }
+        };
+        subscriptions.add(subscriber);
+        ChangeBus.subscribe(type, SwingUtilities::invokeLater, subscriber);
+    }
+
+    private <T> void start(Slot slot, Supplier<T> load, Consumer<T> apply) {
+        int generation = slot.generation;
+        SwingWorker<T, Void> worker = new SwingWorker<>() {
+            @Override
+            protected T doInBackground() {
+                return load.get();
+            }
+
+            @Override
+            protected void done() {
+                slot.running = null;
+                try {
+                    T result = get();
+                    if (!closed && generation == slot.generation) {
+                        apply.accept(result);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Loading data for " + owner.getTitle() + " failed", e.getCause());
+                } finally {
+                    Runnable next = slot.pending;
+                    slot.pending = null;
+                    if (next != null && !closed) {
+                        next.run();
+                    }
+                }
+            }
+        };
+        slot.running = worker;
+        worker.execute();
+    }
+
+    private void showError(String message, Throwable cause) {
+        if (!closed) {
+            JOptionPane.showMessageDialog(owner, message + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package org.example.Presentation;
 import org.example.Business.ClientBLL;
+import org.example.DataAccess.EntityTableModel;
 import org.example.Model.Client;
 import org.example.DataAccess.ClientDAO;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.event.*;
 import java.util.List;
 
@@ -13,11 +13,16 @@ import java.util.List;
  * Allows users to add, update, delete, and view client information in a table interface.
  */
 public class ClientUI extends JFrame {
+    private static final long serialVersionUID = 1L;
+
     private JTextField idField, nameField, addressField, emailField, ageField;
     private JTable table;
-    private DefaultTableModel model;
+    private final EntityTableModel<Client> model;
+    private Client lastClient;
+    private boolean moreClients;
     //private ClientDAO clientDAO = new ClientDAO();
     private ClientBLL clientBLL = new ClientBLL();
+    private final BackgroundTasks tasks = new BackgroundTasks(this);
     /**
      * Constructs the ClientUI window and initializes the user interface components.
      */
@@ -62,9 +67,9 @@ public class ClientUI extends JFrame {
         buttonPanel.add(backButton);
         buttonPanel.add(exitButton);
 
-        List<Client> clients = clientBLL.findAllClients().stream().sorted((c1, c2) -> c1.getName().compareTo(c2.getName())).sorted((c1, c2) -> c1.getEmail().compareTo(c2.getEmail())).toList();
-        model = clientBLL.getTableModel(clients);
+        model = clientBLL.getTableModel(List.of());
         table = new JTable(model);
+        tasks.subscribe(Client.class, changes -> changes.forEach(model::apply));
 
         table.addMouseListener(new MouseAdapter() {
             public void mouseClicked(MouseEvent e) {
@@ -85,8 +90,8 @@ public class ClientUI extends JFrame {
                     emailField.getText(),
                     Integer.parseInt(ageField.getText())
             );
-            clientBLL.insertClient(c);//clientDAO.insert(c);
-            refreshTable();
+            tasks.run(addButton, "Error adding client: ",
+                    () -> clientBLL.insertClient(c), model::apply);//clientDAO.insert(c);
         });
 
         updateButton.addActionListener(e -> {
@@ -97,22 +102,25 @@ public class ClientUI extends JFrame {
                     emailField.getText(),
                     Integer.parseInt(ageField.getText())
             );
-            clientBLL.updateClient(c);//clientDAO.update(c);
-            refreshTable();
+            tasks.run(updateButton, "Error updating client: ",
+                    () -> clientBLL.updateClient(c), model::apply);//clientDAO.update(c);
         });
 
         deleteButton.addActionListener(e -> {
             int id = Integer.parseInt(idField.getText());
-            clientBLL.deleteClient(id);//clientDAO.delete(id);
-            refreshTable();
+            tasks.run(deleteButton, "Error deleting client: ",
+                    () -> clientBLL.deleteClient(id), model::apply);//clientDAO.delete(id);
         });
 
         backButton.addActionListener(e -> dispose());
         exitButton.addActionListener(e -> System.exit(0));
 
         add(inputPanel, "North");
-        add(new JScrollPane(table), "Center");
+        JScrollPane scrollPane = new JScrollPane(table);
+        ScrollPager.install(scrollPane, this::loadNextPage);
+        add(scrollPane, "Center");
         add(buttonPanel, "South");
+        refreshTable();
         setVisible(true);
     }
 
@@ -128,17 +136,37 @@ public class ClientUI extends JFrame {
     }
 
     /**
-     * Refreshes the client table by reloading data from the database.
+     * Refreshes the client table by reloading the first page of clients in the background.
      */
     private void refreshTable() {
-        model.setRowCount(0);
-        List<Client> clients = clientBLL.findAllClients().stream().sorted((c1, c2) -> c1.getName().compareTo(c2.getName())).sorted((c1, c2) -> c1.getEmail().compareTo(c2.getEmail())).toList();
-        DefaultTableModel refreshModel = clientBLL.getTableModel(clients);
-        table.setModel(refreshModel);
-        model = refreshModel;
+        tasks.refresh("clients", () -> clientBLL.findClientPage(null, ScrollPager.PAGE_SIZE), clients -> {
+            model.setRows(clients);
+            lastClient = null;
+            rememberPage(clients);
+        });
     }
 
-    private void showError(String message) {
-        JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
+    /**
+     * Appends the next page of clients to the table in the background, if there is one.
+     */
+    private void loadNextPage() {
+        if (!moreClients) {
+            return;
+        }
+        Client after = lastClient;
+        tasks.append("clients", () -> clientBLL.findClientPage(after, ScrollPager.PAGE_SIZE), clients -> {
+            model.addAll(clients);
+            rememberPage(clients);
+        });
+    }
+
+    /**
+     * Keeps track of where the next page of clients starts.
+     */
+    private void rememberPage(List<Client> clients) {
+        if (!clients.isEmpty()) {
+            lastClient = clients.get(clients.size() - 1);
+        }
+        moreClients = clients.size() == ScrollPager.PAGE_SIZE;
     }
 }
@@ -1,12 +1,16 @@
 package org.example.Presentation;
 
 import org.example.Model.Bill;
+import org.example.Model.EntityChange;
 import org.example.Model.Log;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The main window of the application.
@@ -15,7 +19,16 @@ import java.util.List;
  */
 public class MainUI extends JFrame {
 
+    private static final long serialVersionUID = 1L;
+
     private JTable logTable;
+    private DefaultTableModel logModel;
+    private int lastOrderId;
+    private final Set<Integer> shownOrderIds = new HashSet<>();
+    private boolean moreBills;
+    private boolean logComplete;
+    private final Log log = new Log();
+    private final BackgroundTasks tasks = new BackgroundTasks(this);
     /**
      * Constructs the main user interface window.
      * Initializes buttons for navigating to Clients, Products, and Orders interfaces.
@@ -35,7 +48,7 @@ public class MainUI extends JFrame {
 
         clientButton.addActionListener(e -> new ClientUI());
         productButton.addActionListener(e -> new ProductUI());
-        orderButton.addActionListener(e -> new OrderUI(this));
+        orderButton.addActionListener(e -> new OrderUI());
 
         JPanel topPanel = new JPanel();
         topPanel.add(clientButton);
@@ -49,33 +62,108 @@ public class MainUI extends JFrame {
         add(scrollPane, BorderLayout.CENTER);
 
         populateLogTable();
+        ScrollPager.install(scrollPane, this::loadNewBills);
+        tasks.subscribe(Bill.class, this::billsWritten);
         setVisible(true);
     }
 
     /**
-     * Populates the provided JTable with data from the bill log.
+     * Populates the provided JTable with the first page of the bill log.
      * Each row represents an order previously placed in the system.
      *
      */
-    void populateLogTable() {
-        Log log = new Log();
-        List<Bill> billList = log.findAll();
-
+    private void populateLogTable() {
         String[] columnNames = {"Order ID", "Client ID", "Product ID", "Quantity", "Total Price", "Timestamp"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-
-        for (Bill bill : billList) {
-            Object[] row = {
-                    bill.orderId(),
-                    bill.clientId(),
-                    bill.productId(),
-                    bill.quantity(),
-                    bill.totalPrice(),
-                    bill.timestamp()
-            };
-            model.addRow(row);
+        logModel = new DefaultTableModel(columnNames, 0);
+        logTable.setModel(logModel);
+        lastOrderId = 0;
+        shownOrderIds.clear();
+        loadNewBills();
+    }
+
+    /**
+     * Appends the bills logged after the last bill shown, one page at a time, reading them in the background.
+     * Called when the table is scrolled to the bottom and whenever new bills are written,
+     * so the log is never read again from the start. Requests made while a page is being read
+     * are coalesced into one more read once it is shown.
+     */
+    private void loadNewBills() {
+        int after = lastOrderId;
+        if (!tasks.append("log", () -> log.findSince(after, ScrollPager.PAGE_SIZE), this::showBills)) {
+            moreBills = true;
+        }
+    }
+
+    /**
+     * Shows bills as they are written. Bills are not written in order ID order, so a bill older than
+     * the last one shown is added straight from the change at its place. Newer bills are added the same
+     * way once the whole log is shown, otherwise the next page is read, as older bills still come first.
+     */
+    private void billsWritten(List<EntityChange<Bill>> changes) {
+        List<Bill> bills = changes.stream()
+                .map(EntityChange::entity)
+                .sorted(Comparator.comparingInt(Bill::orderId))
+                .toList();
+        boolean newer = false;
+        for (Bill bill : bills) {
+            if (logComplete || bill.orderId() < lastOrderId) {
+                addBill(bill);
+            } else {
+                newer = true;
+            }
+        }
+        if (newer) {
+            loadNewBills();
+        }
+    }
+
+    private void showBills(List<Bill> bills) {
+        bills.forEach(this::addBill);
+        logComplete = bills.size() < ScrollPager.PAGE_SIZE;
+        if (moreBills) {
+            moreBills = false;
+            loadNewBills();
+        }
+    }
+
+    /**
+     * Adds a bill to the log table, which is sorted by order ID, unless it is already shown.
+     */
+    private void addBill(Bill bill) {
+        if (!shownOrderIds.add(bill.orderId())) {
+            return;
+        }
+        Object[] row = {
+                bill.orderId(),
+                bill.clientId(),
+                bill.productId(),
+                bill.quantity(),
+                bill.totalPrice(),
+                bill.timestamp()
+        };
+        if (bill.orderId() > lastOrderId) {
+            logModel.addRow(row);
+            lastOrderId = bill.orderId();
+        } else {
+            logModel.insertRow(rowIndexFor(bill.orderId()), row);
+        }
+    }
+
+    /**
+     * Returns the row at which a bill with the given order ID keeps the table sorted.
+     */
+    private int rowIndexFor(int orderId) {
+        int low = 0;
+        int high = logModel.getRowCount();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if ((Integer) logModel.getValueAt(middle, 0) < orderId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
         }
-        logTable.setModel(model);
+        return low;
     }
 
     /**
@@ -3,10 +3,12 @@ package org.example.Presentation;
 import org.example.Business.ClientBLL;
 import org.example.Business.OrderBLL;
 import org.example.Business.ProductBLL;
+import org.example.DataAccess.EntityMetadata;
+import org.example.DataAccess.EntityTableModel;
+import org.example.DataAccess.PagedTableModel;
 import org.example.Model.*;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,17 +24,24 @@ import java.util.List;
 
 public class OrderUI extends JFrame {
 
+    private static final long serialVersionUID = 1L;
+    private static final EntityMetadata<Product> PRODUCTS = EntityMetadata.of(Product.class);
+
     private JTable clientTable, productTable, orderTable;
     private JTextField quantityField;
-    private DefaultTableModel clientModel, productModel, orderModel;
+    private final EntityTableModel<Client> clientModel;
+    private final EntityTableModel<Product> productModel;
+    private PagedTableModel<Order> orderModel;
+    private Client lastClient;
+    private Product lastProduct;
+    private boolean moreClients, moreProducts;
 
     private ClientBLL clientBLL = new ClientBLL();
     private ProductBLL productBLL = new ProductBLL();
     private OrderBLL orderBLL = new OrderBLL();
-    private MainUI mainUI;
+    private final BackgroundTasks tasks = new BackgroundTasks(this);
 
-    public OrderUI(MainUI mainUI) {
-        this.mainUI = mainUI;
+    public OrderUI() {
         setTitle("Order Management");
         setSize(1000, 700);
         setLocationRelativeTo(null);
@@ -56,24 +65,31 @@ public class OrderUI extends JFrame {
 
         JPanel selectionPanel = new JPanel(new GridLayout(1, 2));
 
-        clientModel = new DefaultTableModel();
+        clientModel = clientBLL.getTableModel(List.of());
         clientTable = new JTable(clientModel);
-        selectionPanel.add(new JScrollPane(clientTable));
+        JScrollPane clientScrollPane = new JScrollPane(clientTable);
+        ScrollPager.install(clientScrollPane, this::loadNextClients);
+        selectionPanel.add(clientScrollPane);
 
-        productModel = new DefaultTableModel();
+        productModel = productBLL.getAvailableTableModel(List.of());
         productTable = new JTable(productModel);
-        selectionPanel.add(new JScrollPane(productTable));
+        JScrollPane productScrollPane = new JScrollPane(productTable);
+        ScrollPager.install(productScrollPane, this::loadNextProducts);
+        selectionPanel.add(productScrollPane);
 
         add(selectionPanel, BorderLayout.CENTER);
-        orderModel = new DefaultTableModel();
+        orderModel = orderBLL.getPagedOrderTable();
         orderTable = new JTable(orderModel);
         add(new JScrollPane(orderTable), BorderLayout.SOUTH);
 
+        tasks.subscribe(Client.class, changes -> changes.forEach(clientModel::apply));
+        tasks.subscribe(Product.class, changes -> changes.forEach(this::applyProductChange));
+        tasks.subscribe(Order.class, this::ordersPlaced);
+
         refreshClients();
         refreshProducts();
-        refreshOrders();
 
-        placeOrderButton.addActionListener(e -> placeOrder());
+        placeOrderButton.addActionListener(e -> placeOrder(placeOrderButton));
         backButton.addActionListener(e -> dispose());
         exitButton.addActionListener(e -> System.exit(0));
 
@@ -81,36 +97,67 @@ public class OrderUI extends JFrame {
     }
 
     /**
-     * Loads and displays all clients from the database.
+     * Loads the first page of clients in the background and displays it.
      */
     private void refreshClients() {
-        clientModel.setRowCount(0);
-        List<Client> clients = clientBLL.findAllClients().stream().sorted((c1, c2) -> c1.getName().compareTo(c2.getName())).sorted((c1, c2) -> c1.getEmail().compareTo(c2.getEmail())).toList();
-        DefaultTableModel refreshModel = clientBLL.getTableModel(clients);
-        clientTable.setModel(refreshModel);
-        clientModel = refreshModel;
+        tasks.refresh("clients", () -> clientBLL.findClientPage(null, ScrollPager.PAGE_SIZE), clients -> {
+            clientModel.setRows(clients);
+            lastClient = null;
+            rememberClients(clients);
+        });
+    }
+
+    /**
+     * Appends the next page of clients to the client table in the background, if there is one.
+     */
+    private void loadNextClients() {
+        if (!moreClients) {
+            return;
+        }
+        Client after = lastClient;
+        tasks.append("clients", () -> clientBLL.findClientPage(after, ScrollPager.PAGE_SIZE), clients -> {
+            clientModel.addAll(clients);
+            rememberClients(clients);
+        });
+    }
+
+    private void rememberClients(List<Client> clients) {
+        if (!clients.isEmpty()) {
+            lastClient = clients.get(clients.size() - 1);
+        }
+        moreClients = clients.size() == ScrollPager.PAGE_SIZE;
     }
 
     /**
-     * Loads and displays all products from the database.
+     * Loads the first page of products in stock in the background and displays it.
      */
     private void refreshProducts() {
-        productModel.setRowCount(0);
-        List<Product> products = productBLL.findAllProducts().stream().filter(p1 -> p1.getQuantity() > 0).sorted((p1, p2) -> Integer.compare(p1.getId(), p2.getId())).toList();
-        DefaultTableModel refreshModel = productBLL.getTableModel(products);
-        productTable.setModel(refreshModel);
-        productModel = refreshModel;
+        tasks.refresh("products", () -> productBLL.findAvailableProducts(null, ScrollPager.PAGE_SIZE), products -> {
+            productModel.setRows(products);
+            lastProduct = null;
+            rememberProducts(products);
+        });
     }
 
     /**
-     * Loads and displays all orders from the database.
+     * Appends the next page of products in stock to the product table in the background, if there is one.
      */
-    private void refreshOrders() {
-        orderModel.setRowCount(0);
-        List<Order> orders = orderBLL.findAllOrders().stream().sorted((o2, o1) -> o1.getOrderDate().compareTo(o2.getOrderDate())).toList();
-        DefaultTableModel refreshModel = orderBLL.getOrderTable(orders);
-        orderTable.setModel(refreshModel);
-        orderModel = refreshModel;
+    private void loadNextProducts() {
+        if (!moreProducts) {
+            return;
+        }
+        Product after = lastProduct;
+        tasks.append("products", () -> productBLL.findAvailableProducts(after, ScrollPager.PAGE_SIZE), products -> {
+            productModel.addAll(products);
+            rememberProducts(products);
+        });
+    }
+
+    private void rememberProducts(List<Product> products) {
+        if (!products.isEmpty()) {
+            lastProduct = products.get(products.size() - 1);
+        }
+        moreProducts = products.size() == ScrollPager.PAGE_SIZE;
     }
 
     /**
@@ -118,11 +165,14 @@ public class OrderUI extends JFrame {
      * - Checks if a client and product are selected
      * - Validates the quantity
      * - Checks stock availability
-     * - Updates product quantity in the database
-     * - Inserts a new order
-     * - Logs the bill in the Log table
+     * - Places the order, which updates the product quantity and inserts the order
+     *   in a single transaction, and queues the bill for the Log table
+     * The new order and the remaining stock are shown once the order is published on the change bus.
+     * The order is placed in the background; the button stays disabled until it is done.
+     *
+     * @param trigger the button disabled while the order is placed
      */
-    private void placeOrder() {
+    private void placeOrder(JButton trigger) {
         int clientRow = clientTable.getSelectedRow();
         int productRow = productTable.getSelectedRow();
 
@@ -135,37 +185,61 @@ public class OrderUI extends JFrame {
             int clientId = (int) clientModel.getValueAt(clientRow, 0);
             int productId = (int) productModel.getValueAt(productRow, 0);
             int availableQty = (int) productModel.getValueAt(productRow, 3);
-            double price = (double) productModel.getValueAt(productRow, 1);
             int quantity = Integer.parseInt(quantityField.getText());
             if (quantity > availableQty) {
                 JOptionPane.showMessageDialog(this, "Insufficient stock for selected product.");
                 return;
             }
-            productBLL.updateProduct(new Product(productId, price,
-                    (String) productModel.getValueAt(productRow, 2),
-                    availableQty - quantity));
             Order newOrder = new Order(0, clientId, productId, LocalDateTime.now(), quantity);
-            orderBLL.insert(newOrder);
+            tasks.run(trigger, "Error placing order: ", () -> orderBLL.placeOrder(newOrder), bill -> {
+                JOptionPane.showMessageDialog(this, "Order placed successfully!");
+            });
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid quantity entered.");
+        }
+    }
 
-            double totalPrice = quantity * price;
-            Bill bill = new Bill(
-                    (int) orderModel.getValueAt(orderModel.getRowCount() - 1, 0),
-                    clientId, productId, quantity, totalPrice, newOrder.getOrderDate());
+    /**
+     * Shows orders placed in any window: the order table is refreshed once per batch,
+     * and the ordered quantities are taken out of the stock shown.
+     */
+    private void ordersPlaced(List<EntityChange<Order>> changes) {
+        orderModel.refresh();
+        for (EntityChange<Order> change : changes) {
+            updateProductRow(change.entity().getProductId(), change.entity().getQuantity());
+        }
+    }
 
-            Log log = new Log();
-            log.insertBill(bill);
-            if (mainUI != null) {
-                mainUI.populateLogTable();
-            }
-            JOptionPane.showMessageDialog(this, "Order placed successfully!");
+    /**
+     * Applies a product change to the table of products in stock, removing products that ran out
+     * and adding products that were restocked.
+     */
+    private void applyProductChange(EntityChange<Product> change) {
+        if (change.entity() != null && change.entity().getQuantity() <= 0) {
+            productModel.apply(EntityChange.deleted(change.id()));
+        } else if (change.kind() == EntityChange.Kind.UPDATED && productModel.indexOf(change.id()) < 0) {
+            productModel.apply(EntityChange.inserted(change.id(), change.entity()));
+        } else {
+            productModel.apply(change);
+        }
+    }
 
-            refreshProducts();
-            refreshOrders();
-        } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(this, "Invalid quantity entered.");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error placing order: " + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
+    /**
+     * Takes an ordered quantity out of the stock shown for a product, removing the row when none is left.
+     * The row is replaced by an updated copy, as the product it shows may be shared with other windows.
+     */
+    private void updateProductRow(int productId, int quantity) {
+        int row = productModel.indexOf(productId);
+        if (row < 0) {
+            return;
+        }
+        Product product = productModel.getRow(row);
+        if (product.getQuantity() <= quantity) {
+            productModel.apply(EntityChange.deleted(productId));
+        } else {
+            product = PRODUCTS.copy(product);
+            product.setQuantity(product.getQuantity() - quantity);
+            productModel.apply(EntityChange.updated(productId, product));
         }
     }
 }
@@ -1,11 +1,14 @@
 package org.example.Presentation;
 
 import org.example.Business.ProductBLL;
+import org.example.DataAccess.EntityMetadata;
+import org.example.DataAccess.EntityTableModel;
+import org.example.Model.EntityChange;
+import org.example.Model.Order;
 import org.example.Model.Product;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.List;
 /**
@@ -13,10 +16,16 @@ import java.util.List;
  * It allows users to add, update, delete, and view product records.
  */
 public class ProductUI extends JFrame {
+    private static final long serialVersionUID = 1L;
+    private static final EntityMetadata<Product> PRODUCTS = EntityMetadata.of(Product.class);
+
     private JTextField idField, nameField, priceField, quantityField;
     private JTable table;
-    private DefaultTableModel tableModel;
+    private final EntityTableModel<Product> tableModel;
+    private Product lastProduct;
+    private boolean moreProducts;
     private final ProductBLL productBLL;
+    private final BackgroundTasks tasks = new BackgroundTasks(this);
 
     public ProductUI() {
         super("Product Management");
@@ -50,9 +59,9 @@ public class ProductUI extends JFrame {
         JButton clearButton = new JButton("Clear Fields");
 
         clearButton.addActionListener(e -> clearTextFields());
-        addButton.addActionListener(e -> addProduct());
-        updateButton.addActionListener(e -> updateProduct());
-        deleteButton.addActionListener(e -> deleteProduct());
+        addButton.addActionListener(e -> addProduct(addButton));
+        updateButton.addActionListener(e -> updateProduct(updateButton));
+        deleteButton.addActionListener(e -> deleteProduct(deleteButton));
         backButton.addActionListener(e -> dispose());
 
         buttonPanel.add(clearButton);
@@ -61,9 +70,10 @@ public class ProductUI extends JFrame {
         buttonPanel.add(deleteButton);
         buttonPanel.add(backButton);
 
-        List<Product> products = productBLL.findAllProducts().stream().sorted((p1, p2) -> p1.getName().compareTo(p2.getName())).toList();
-        tableModel = productBLL.getTableModel(products);
+        tableModel = productBLL.getTableModel(List.of());
         table = new JTable(tableModel);
+        tasks.subscribe(Product.class, changes -> changes.forEach(tableModel::apply));
+        tasks.subscribe(Order.class, changes -> changes.forEach(change -> takeOrderedStock(change.entity())));
 
         DefaultTableCellRenderer topAlign = new DefaultTableCellRenderer();
         topAlign.setVerticalAlignment(SwingConstants.TOP);
@@ -75,7 +85,9 @@ public class ProductUI extends JFrame {
 
         setLayout(new BorderLayout());
         add(inputPanel, BorderLayout.NORTH);
-        add(new JScrollPane(table), BorderLayout.CENTER);
+        JScrollPane scrollPane = new JScrollPane(table);
+        ScrollPager.install(scrollPane, this::loadNextPage);
+        add(scrollPane, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
 
         refreshTable();
@@ -83,16 +95,55 @@ public class ProductUI extends JFrame {
     }
 
     /**
-     * Refreshes the product table by retrieving and displaying the updated list of products.
+     * Refreshes the product table by retrieving the first page of products in the background.
      * The products are sorted alphabetically by name.
      */
 
     private void refreshTable() {
-        tableModel.setRowCount(0);
-        List<Product> products = productBLL.findAllProducts().stream().sorted((p1, p2) -> p1.getName().compareTo(p2.getName())).toList();
-        DefaultTableModel refreshed = productBLL.getTableModel(products);
-        table.setModel(refreshed);
-        tableModel = refreshed;
+        tasks.refresh("products", () -> productBLL.findProductPage(null, ScrollPager.PAGE_SIZE), products -> {
+            tableModel.setRows(products);
+            lastProduct = null;
+            rememberPage(products);
+        });
+    }
+
+    /**
+     * Appends the next page of products to the table in the background, if there is one.
+     */
+    private void loadNextPage() {
+        if (!moreProducts) {
+            return;
+        }
+        Product after = lastProduct;
+        tasks.append("products", () -> productBLL.findProductPage(after, ScrollPager.PAGE_SIZE), products -> {
+            tableModel.addAll(products);
+            rememberPage(products);
+        });
+    }
+
+    /**
+     * Keeps track of where the next page of products starts.
+     */
+    private void rememberPage(List<Product> products) {
+        if (!products.isEmpty()) {
+            lastProduct = products.get(products.size() - 1);
+        }
+        moreProducts = products.size() == ScrollPager.PAGE_SIZE;
+    }
+
+    /**
+     * Takes the quantity of a newly placed order out of the stock shown for its product.
+     * The row is replaced by an updated copy, as the product it shows may be shared with other windows.
+     *
+     * @param order the order placed in any window
+     */
+    private void takeOrderedStock(Order order) {
+        int row = tableModel.indexOf(order.getProductId());
+        if (row >= 0) {
+            Product product = PRODUCTS.copy(tableModel.getRow(row));
+            product.setQuantity(product.getQuantity() - order.getQuantity());
+            tableModel.apply(EntityChange.updated(product.getId(), product));
+        }
     }
 
     /**
@@ -124,45 +175,50 @@ public class ProductUI extends JFrame {
 
     /**
      * Creates a new product from the input fields and inserts it into the database.
-     * Then refreshes the table to display the new product.
+     * Then adds the new product to the table, in its sorted position.
      * Assumes that the input values are valid and properly formatted.
+     *
+     * @param trigger the button disabled while the product is saved
      */
 
-    private void addProduct() {
+    private void addProduct(JButton trigger) {
         Product product = new Product(
                 0,
                 Double.parseDouble(priceField.getText()),
                 nameField.getText(),
                 Integer.parseInt(quantityField.getText())
         );
-        productBLL.insertProduct(product);
-        refreshTable();
+        tasks.run(trigger, "Error adding product: ",
+                () -> productBLL.insertProduct(product), tableModel::apply);
     }
 
     /**
      * Updates the selected product in the database using the data from the input fields.
-     * Then refreshes the table to reflect the changes.
+     * Then updates its row in the table.
      * Assumes that the input values are valid and properly formatted.
+     *
+     * @param trigger the button disabled while the product is saved
      */
-    private void updateProduct() {
+    private void updateProduct(JButton trigger) {
         Product product = new Product(
                 Integer.parseInt(idField.getText()),
                 Double.parseDouble(priceField.getText()),
                 nameField.getText(),
                 Integer.parseInt(quantityField.getText())
         );
-        productBLL.updateProduct(product);
-        refreshTable();
+        tasks.run(trigger, "Error updating product: ",
+                () -> productBLL.updateProduct(product), tableModel::apply);
     }
 
     /**
      * Deletes the currently selected product from the database based on its ID.
-     * Then refreshes the table to remove the deleted product.
+     * Then removes its row from the table.
+     *
+     * @param trigger the button disabled while the product is deleted
      */
 
-    private void deleteProduct() {
+    private void deleteProduct(JButton trigger) {
         int id = Integer.parseInt(idField.getText());
-        productBLL.deleteProduct(id);
-        refreshTable();
+        tasks.run(trigger, "Error deleting product: ", () -> productBLL.deleteProduct(id), tableModel::apply);
     }
 }
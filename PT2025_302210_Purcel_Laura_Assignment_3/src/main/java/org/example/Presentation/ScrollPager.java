@@ -0,0 +1,35 @@
+package org.example.Presentation;
+
+import javax.swing.*;
+
+/**
+ * Helper that loads the next page of a table when its scroll pane is scrolled close to the bottom.
+ * Screens show one page of rows at first and append further pages on demand.
+ */
+class ScrollPager {
+
+    static final int PAGE_SIZE = 200;
+    private static final int THRESHOLD = 20;
+
+    private ScrollPager() {
+    }
+
+    /**
+     * Calls {@code loadNextPage} whenever the vertical scroll bar reaches the bottom of the view.
+     *
+     * @param scrollPane   the scroll pane holding the table
+     * @param loadNextPage the action appending the next page of rows
+     */
+    static void install(JScrollPane scrollPane, Runnable loadNextPage) {
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (e.getValueIsAdjusting()) {
+                return;
+            }
+            BoundedRangeModel model = scrollPane.getVerticalScrollBar().getModel();
+            if (model.getMaximum() > model.getExtent()
+                    && model.getValue() + model.getExtent() >= model.getMaximum() - THRESHOLD) {
+                loadNextPage.run();
+            }
+        });
+    }
+}
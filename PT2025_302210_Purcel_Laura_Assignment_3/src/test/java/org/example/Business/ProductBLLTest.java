@@ -0,0 +1,176 @@
+package org.example.Business;
+
+import org.example.Model.Product;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that product edits made in a form only write the columns that changed,
+ * against a JDBC driver that serves one stored row and records every statement it runs.
+ */
+class ProductBLLTest {
+
+    private static final RecordingDriver DRIVER = new RecordingDriver();
+
+    @BeforeAll
+    static void installDriver() throws Exception {
+        Class.forName("org.example.Connection.ConnectionFactory");
+        for (Driver driver : Collections.list(DriverManager.getDrivers())) {
+            DriverManager.deregisterDriver(driver);
+        }
+        DriverManager.registerDriver(DRIVER);
+    }
+
+    @BeforeEach
+    void storeProduct() {
+        DRIVER.row = new Object[]{7, 12.5, "Lamp", 40};
+        DRIVER.updates.clear();
+    }
+
+    @Test
+    void quantityEditBindsOnlyTheQuantityColumn() {
+        new ProductBLL().updateProduct(new Product(7, 12.5, "Lamp", 25));
+
+        assertEquals(1, DRIVER.updates.size());
+        Update update = DRIVER.updates.get(0);
+        assertEquals("UPDATE `Product` SET quantity = ? WHERE id = ?", update.sql());
+        assertEquals(Map.of(1, 25, 2, 7), update.parameters());
+    }
+
+    @Test
+    void unchangedEditSendsNoUpdate() {
+        new ProductBLL().updateProduct(new Product(7, 12.5, "Lamp", 40));
+
+        assertTrue(DRIVER.updates.isEmpty());
+    }
+
+    @Test
+    void editOfMissingProductIsRejected() {
+        DRIVER.row = null;
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ProductBLL().updateProduct(new Product(7, 12.5, "Lamp", 25)));
+        assertTrue(DRIVER.updates.isEmpty());
+    }
+
+    private record Update(String sql, Map<Integer, Object> parameters) {
+    }
+
+    /**
+     * Driver whose queries return the stored row, if any, and whose updates are recorded instead of run.
+     */
+    private static final class RecordingDriver implements Driver {
+        private final List<Update> updates = Collections.synchronizedList(new ArrayList<>());
+        private volatile Object[] row;
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            boolean[] autoCommit = {true};
+            return proxy(Connection.class, (method, args) -> switch (method) {
+                case "prepareStatement" -> statement((String) args[0]);
+                case "getAutoCommit" -> autoCommit[0];
+                case "setAutoCommit" -> autoCommit[0] = (Boolean) args[0];
+                case "isValid" -> true;
+                default -> null;
+            });
+        }
+
+        private PreparedStatement statement(String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+                case "setInt", "setDouble", "setString", "setObject" -> parameters.put((Integer) args[0], args[1]);
+                case "executeUpdate" -> {
+                    updates.add(new Update(sql, parameters));
+                    yield 1;
+                }
+                case "executeQuery" -> resultSet(row);
+                default -> null;
+            });
+        }
+
+        private static ResultSet resultSet(Object[] row) {
+            boolean[] read = {row == null};
+            return proxy(ResultSet.class, (method, args) -> switch (method) {
+                case "next" -> {
+                    boolean next = !read[0];
+                    read[0] = true;
+                    yield next;
+                }
+                case "getInt", "getDouble", "getString", "getObject" -> row[(Integer) args[0] - 1];
+                default -> null;
+            });
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return true;
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args) throws SQLException;
+    }
+
+    /**
+     * Implements a JDBC interface with the given handler, answering the default value for the primitive
+     * results it leaves unhandled.
+     */
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = handler.handle(method.getName(), args);
+            Class<?> returnType = method.getReturnType();
+            if (result != null || !returnType.isPrimitive() || returnType == void.class) {
+                return returnType == void.class ? null : result;
+            }
+            return Array.get(Array.newInstance(returnType, 1), 0);
+        }));
+    }
+}
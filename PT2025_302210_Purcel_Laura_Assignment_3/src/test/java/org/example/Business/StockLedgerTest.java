@@ -0,0 +1,196 @@
+package org.example.Business;
+
+import org.example.DataAccess.InsufficientStockException;
+import org.example.DataAccess.ProductDAO;
+import org.example.Model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the stock ledger under concurrent use, against an in-memory product table instead of the database.
+ * The ledgers run without their background writer, so every write to the table is made by the test.
+ */
+class StockLedgerTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws InterruptedException {
+        StubProductDAO products = new StubProductDAO(Map.of(1, 1_000));
+        StockLedger ledger = new StockLedger(products, false);
+        AtomicInteger committed = new AtomicInteger();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 2_000; i++) {
+                int quantity = 1 + random.nextInt(5);
+                if (!ledger.reserve(1, quantity)) {
+                    continue;
+                }
+                if (random.nextInt(3) == 0) {
+                    ledger.release(1, quantity);
+                } else {
+                    ledger.commit(1, quantity);
+                    committed.addAndGet(quantity);
+                }
+            }
+        });
+
+        assertTrue(committed.get() <= 1_000, "committed " + committed.get() + " units out of 1000");
+        assertEquals(1_000 - committed.get(), ledger.getAvailable(1));
+        assertTrue(ledger.flush());
+        assertEquals(1_000 - committed.get(), products.stored(1));
+    }
+
+    @Test
+    void exhaustedStockIsReservedExactlyOnce() throws InterruptedException {
+        StubProductDAO products = new StubProductDAO(Map.of(1, 500));
+        StockLedger ledger = new StockLedger(products, false);
+        AtomicInteger reserved = new AtomicInteger();
+
+        runConcurrently(() -> {
+            while (ledger.reserve(1, 1)) {
+                ledger.commit(1, 1);
+                reserved.incrementAndGet();
+            }
+        });
+
+        assertEquals(500, reserved.get());
+        assertEquals(0, ledger.getAvailable(1));
+        assertTrue(ledger.flush());
+        assertEquals(0, products.stored(1));
+    }
+
+    @Test
+    void flushHoldsBackProductsWhoseStoredStockIsTooLow() {
+        StubProductDAO products = new StubProductDAO(Map.of(1, 10, 2, 10));
+        StockLedger ledger = new StockLedger(products, false);
+        products.setStored(2, 2);
+
+        assertTrue(ledger.reserve(1, 5));
+        assertTrue(ledger.reserve(2, 5));
+        ledger.commit(1, 5);
+        ledger.commit(2, 5);
+
+        assertFalse(ledger.flush());
+        assertEquals(5, products.stored(1));
+        assertEquals(2, products.stored(2));
+
+        products.setStored(2, 12);
+        assertTrue(ledger.flush());
+        assertEquals(7, products.stored(2));
+    }
+
+    @Test
+    void reconcileCorrectsDriftFromTheDatabase() {
+        StubProductDAO products = new StubProductDAO(Map.of(1, 10));
+        StockLedger ledger = new StockLedger(products, false);
+        assertTrue(ledger.reserve(1, 2));
+
+        products.setStored(1, 20);
+        Map<Integer, Integer> corrections = ledger.reconcile();
+
+        assertEquals(Map.of(1, 10), corrections);
+        assertEquals(18, ledger.getAvailable(1));
+    }
+
+    @Test
+    void productsCreatedAfterTheLedgerAreLoadedOnFirstUse() {
+        StubProductDAO products = new StubProductDAO(Map.of(1, 10));
+        StockLedger ledger = new StockLedger(products, false);
+        products.setStored(2, 3);
+
+        assertTrue(ledger.reserve(2, 3));
+        assertFalse(ledger.reserve(2, 1));
+        ledger.commit(2, 3);
+
+        assertTrue(ledger.flush());
+        assertEquals(0, products.stored(2));
+    }
+
+    private static void runConcurrently(Runnable work) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                work.run();
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Product table kept in memory. Stock changes are guarded and atomic like the SQL batch of ProductDAO.
+     */
+    private static final class StubProductDAO extends ProductDAO {
+        private final Map<Integer, Integer> stock;
+
+        StubProductDAO(Map<Integer, Integer> initial) {
+            this.stock = new HashMap<>(initial);
+        }
+
+        synchronized int stored(int productId) {
+            return stock.get(productId);
+        }
+
+        synchronized void setStored(int productId, int quantity) {
+            stock.put(productId, quantity);
+        }
+
+        @Override
+        public synchronized void forEach(Consumer<? super Product> action) {
+            findAll().forEach(action);
+        }
+
+        @Override
+        public synchronized List<Product> findAll() {
+            List<Product> all = new ArrayList<>();
+            stock.forEach((id, quantity) -> all.add(new Product(id, "product " + id, 1.0, quantity)));
+            return all;
+        }
+
+        @Override
+        public synchronized Product findCurrentById(int id) {
+            Integer quantity = stock.get(id);
+            return quantity == null ? null : new Product(id, "product " + id, 1.0, quantity);
+        }
+
+        @Override
+        public synchronized void applyStockDeltas(Map<Integer, Integer> deltas) {
+            Set<Integer> rejected = new HashSet<>();
+            deltas.forEach((id, quantity) -> {
+                if (stock.get(id) < quantity) {
+                    rejected.add(id);
+                }
+            });
+            if (!rejected.isEmpty()) {
+                throw new InsufficientStockException(rejected);
+            }
+            deltas.forEach((id, quantity) -> stock.merge(id, -quantity, Integer::sum));
+        }
+    }
+}